@@ -7,7 +7,7 @@ public class ApiException extends Exception {
 
     private final int statusCode;
     public ApiException(String message, int statusCode, Throwable cause) {
-        super(message);
+        super(message, cause);
         this.statusCode = statusCode;
     }
 
@@ -0,0 +1,22 @@
+package com.reliaquest.api.exception;
+
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+/*
+ * Raised instead of calling upstream while the circuit breaker considers it down.
+ */
+public class CircuitOpenException extends ApiException {
+
+    private final Duration retryAfter;
+
+    public CircuitOpenException(String message, Duration retryAfter) {
+        super(message, HttpStatus.SERVICE_UNAVAILABLE.value());
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,22 @@
+package com.reliaquest.api.exception;
+
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+/*
+ * Raised when an upstream call is not attempted, or gave up, because the upstream request budget is exhausted.
+ */
+public class RateLimitedException extends ApiException {
+
+    private final Duration retryAfter;
+
+    public RateLimitedException(String message, Duration retryAfter) {
+        super(message, HttpStatus.TOO_MANY_REQUESTS.value());
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
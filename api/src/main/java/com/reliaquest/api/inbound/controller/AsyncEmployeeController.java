@@ -0,0 +1,113 @@
+package com.reliaquest.api.inbound.controller;
+
+import com.reliaquest.api.inbound.model.RequestDto;
+import com.reliaquest.api.service.IEmployeeService;
+import com.reliaquest.api.service.model.Employee;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/*
+ * Non-blocking twin of EmployeeController under /async. IEmployeeController fixes the synchronous contract, so the
+ * asynchronous handlers live here: each returns a CompletableFuture and releases the servlet thread while upstream
+ * is working. Failures surface through GlobalExceptionHandler exactly as on the synchronous routes.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/async")
+public class AsyncEmployeeController {
+
+    private final IEmployeeService employeeService;
+
+    public AsyncEmployeeController(IEmployeeService employeeService) {
+        this.employeeService = employeeService;
+    }
+
+    @GetMapping()
+    public CompletableFuture<ResponseEntity<List<Employee>>> getAllEmployees() {
+        log.info("Fetching all employees");
+        return employeeService.getAllEmployeesAsync().thenApply(AsyncEmployeeController::okOrNoContent);
+    }
+
+    @GetMapping("/search/{searchString}")
+    public CompletableFuture<ResponseEntity<List<Employee>>> getEmployeesByNameSearch(
+            @PathVariable String searchString) {
+        if (searchString == null || searchString.isBlank()) {
+            log.warn("Search string is null or blank");
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+
+        log.info("Fetching employees with name containing: {}", searchString);
+        return employeeService.getEmployeesByNameSearchAsync(searchString)
+                .thenApply(AsyncEmployeeController::okOrNoContent);
+    }
+
+    @GetMapping("/{id}")
+    public CompletableFuture<ResponseEntity<Employee>> getEmployeeById(@PathVariable String id) {
+        if (id == null || id.isBlank()) {
+            log.warn("Employee ID is null or blank");
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+
+        log.info("Fetching employee with ID: {}", id);
+        return employeeService.getEmployeeByIdAsync(id)
+                .thenApply(employee -> employee != null
+                        ? ResponseEntity.ok(employee)
+                        : ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/highestSalary")
+    public CompletableFuture<ResponseEntity<Integer>> getHighestSalaryOfEmployees() {
+        log.info("Fetching highest salary from all employees");
+        return employeeService.getHighestSalaryOfEmployeesAsync()
+                .thenApply(salary -> salary != null
+                        ? ResponseEntity.ok(salary)
+                        : ResponseEntity.noContent().build());
+    }
+
+    @GetMapping("/topTenHighestEarningEmployeeNames")
+    public CompletableFuture<ResponseEntity<List<String>>> getTopTenHighestEarningEmployeeNames() {
+        log.info("Fetching top 10 highest salary employees");
+        return employeeService.getTopTenHighestEarningEmployeeNamesAsync()
+                .thenApply(AsyncEmployeeController::okOrNoContent);
+    }
+
+    @PostMapping()
+    public CompletableFuture<ResponseEntity<Employee>> createEmployee(@RequestBody RequestDto employeeInput) {
+        if (employeeInput == null) {
+            log.warn("Employee input is null");
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+
+        log.info("Creating new employee: {}", employeeInput.getName());
+        return employeeService.createEmployeeAsync(employeeInput)
+                .thenApply(created -> ResponseEntity.status(HttpStatus.CREATED).body(created));
+    }
+
+    @DeleteMapping("/{id}")
+    public CompletableFuture<ResponseEntity<String>> deleteEmployeeById(@PathVariable String id) {
+        if (id == null || id.isBlank()) {
+            log.warn("Employee ID is null or blank");
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+
+        log.info("Deleting employee with ID: {}", id);
+        return employeeService.deleteEmployeeByIdAsync(id).thenApply(ResponseEntity::ok);
+    }
+
+    private static <T> ResponseEntity<List<T>> okOrNoContent(List<T> values) {
+        return values.isEmpty()
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.ok(values);
+    }
+}
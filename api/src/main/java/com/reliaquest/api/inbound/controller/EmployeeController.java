@@ -1,6 +1,9 @@
 package com.reliaquest.api.inbound.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.reliaquest.api.inbound.model.RequestDto;
 import com.reliaquest.api.exception.ApiException;
 import com.reliaquest.api.service.EmployeeServiceImpl;
@@ -8,13 +11,18 @@ import com.reliaquest.api.service.model.Employee;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,12 +31,18 @@ import java.util.Optional;
 @Controller
 public class EmployeeController implements IEmployeeController {
 
+    static final String NDJSON = "application/x-ndjson";
+
     private final EmployeeServiceImpl employeeService;
     private final ObjectMapper objectMapper;
+    private final ObjectWriter ndjsonWriter;
 
     public EmployeeController(@Autowired EmployeeServiceImpl employeeService, @Autowired ObjectMapper objectMapper) {
         this.employeeService = employeeService;
         this.objectMapper = objectMapper;
+        // Flushing after every record would turn each line into its own chunk
+        this.ndjsonWriter = objectMapper.writerFor(Employee.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
     @Override
@@ -41,6 +55,43 @@ public class EmployeeController implements IEmployeeController {
                 : ResponseEntity.ok(employees);
     }
 
+    /*
+     * Opt-in streaming form of getAllEmployees, selected with Accept: application/x-ndjson.
+     * One JSON object per line, written to the response as it is produced; no Content-Length is set, so the
+     * container sends it chunked and never holds the serialized roster.
+     */
+    @GetMapping(produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamAllEmployees() throws ApiException {
+        log.info("Streaming all employees");
+        List<Employee> employees = employeeService.getAllEmployees();
+
+        if (employees.isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(out -> writeNdjson(employees, out));
+    }
+
+    private void writeNdjson(List<Employee> employees, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            // The response stream is the container's to close
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Records are newline-terminated below, not space-separated
+            generator.setRootValueSeparator(null);
+            boolean first = true;
+            for (Employee employee : employees) {
+                ndjsonWriter.writeValue(generator, employee);
+                generator.writeRaw('\n');
+                if (first) {
+                    // Push the first record out right away; after that the container flushes whenever its buffer fills
+                    generator.flush();
+                    first = false;
+                }
+            }
+        }
+    }
+
     @Override
     public ResponseEntity<List<Employee>> getEmployeesByNameSearch(String searchString) throws ApiException {
         if (searchString == null || searchString.isBlank()) {
@@ -91,6 +142,22 @@ public class EmployeeController implements IEmployeeController {
                 : ResponseEntity.ok(names);
     }
 
+    @GetMapping("/topHighestEarningEmployeeNames")
+    public ResponseEntity<List<String>> getTopHighestEarningEmployeeNames(
+            @RequestParam(defaultValue = "10") int count) throws ApiException {
+        if (count < 1) {
+            log.warn("Requested top earner count is not positive: {}", count);
+            return ResponseEntity.badRequest().build();
+        }
+
+        log.info("Fetching top {} highest salary employees", count);
+        List<String> names = employeeService.getTopHighestEarningEmployeeNames(count);
+
+        return names.isEmpty()
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.ok(names);
+    }
+
     @Override
     public ResponseEntity<Employee> createEmployee(@RequestBody Object employeeInput) throws IOException, InterruptedException, ApiException {
         log.info("Creating new employee: {}", employeeInput);
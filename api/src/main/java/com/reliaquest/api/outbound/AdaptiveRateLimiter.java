@@ -0,0 +1,154 @@
+package com.reliaquest.api.outbound;
+
+import com.reliaquest.api.exception.ApiException;
+import com.reliaquest.api.exception.RateLimitedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Client-side token bucket in front of every upstream call.
+ *
+ * The refill rate adapts to what upstream accepts: it is halved on every 429 and grows back by a fixed step per
+ * success. A 429 also closes the bucket until the Retry-After the server sent, or until an exponentially growing
+ * backoff when it sent none, so calls that would certainly be rejected are never sent.
+ *
+ * Callers wait for a permit only up to the wait allowed for their priority. While a write is waiting, reads do not
+ * take permits.
+ */
+@Slf4j
+@Component
+public class AdaptiveRateLimiter {
+
+    private final double maxPermitsPerSecond;
+    private final double minPermitsPerSecond;
+    private final double burst;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration readMaxWait;
+    private final Duration writeMaxWait;
+    private final AtomicInteger waitingWrites = new AtomicInteger();
+
+    private double permitsPerSecond;
+    private double tokens;
+    private long lastRefillNanos;
+    private long blockedUntilNanos;
+    private Duration backoff;
+
+    public AdaptiveRateLimiter(@Value("${employee.api.rate-limit.permits-per-second:5}") double permitsPerSecond,
+                               @Value("${employee.api.rate-limit.min-permits-per-second:0.1}")
+                               double minPermitsPerSecond,
+                               @Value("${employee.api.rate-limit.burst:5}") int burst,
+                               @Value("${employee.api.rate-limit.initial-backoff:1s}") Duration initialBackoff,
+                               @Value("${employee.api.rate-limit.max-backoff:90s}") Duration maxBackoff,
+                               @Value("${employee.api.rate-limit.read-max-wait:250ms}") Duration readMaxWait,
+                               @Value("${employee.api.rate-limit.write-max-wait:5s}") Duration writeMaxWait) {
+        if (permitsPerSecond <= 0 || minPermitsPerSecond <= 0 || minPermitsPerSecond > permitsPerSecond || burst < 1) {
+            throw new IllegalArgumentException("Rate limit must allow at least one request");
+        }
+        this.maxPermitsPerSecond = permitsPerSecond;
+        this.minPermitsPerSecond = minPermitsPerSecond;
+        this.burst = burst;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.readMaxWait = readMaxWait;
+        this.writeMaxWait = writeMaxWait;
+        this.permitsPerSecond = permitsPerSecond;
+        this.tokens = burst;
+        this.lastRefillNanos = System.nanoTime();
+        this.backoff = initialBackoff;
+    }
+
+    public void acquire(RequestPriority priority) throws ApiException {
+        Futures.await(acquireAsync(priority));
+    }
+
+    /*
+     * Completes once a permit is taken, or fails with RateLimitedException when none is expected within the wait
+     * allowed for the priority. Waiting is done on a timer, never on the caller's thread.
+     */
+    public CompletableFuture<Void> acquireAsync(RequestPriority priority) {
+        boolean write = priority == RequestPriority.WRITE;
+        long deadline = System.nanoTime() + (write ? writeMaxWait : readMaxWait).toNanos();
+        CompletableFuture<Void> permit = new CompletableFuture<>();
+        if (write) {
+            waitingWrites.incrementAndGet();
+            permit.whenComplete((ignored, error) -> waitingWrites.decrementAndGet());
+        }
+        attempt(permit, priority, deadline);
+        return permit;
+    }
+
+    private void attempt(CompletableFuture<Void> permit, RequestPriority priority, long deadline) {
+        long waitNanos = tryAcquire(priority == RequestPriority.WRITE);
+        if (waitNanos == 0) {
+            permit.complete(null);
+            return;
+        }
+        if (System.nanoTime() + waitNanos > deadline) {
+            Duration retryAfter = Duration.ofNanos(waitNanos);
+            log.warn("Shedding {} request, upstream budget exhausted for another {} ms",
+                    priority, retryAfter.toMillis());
+            permit.completeExceptionally(new RateLimitedException("Upstream request budget exhausted", retryAfter));
+            return;
+        }
+        CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS)
+                .execute(() -> attempt(permit, priority, deadline));
+    }
+
+    public synchronized void onSuccess() {
+        backoff = initialBackoff;
+        permitsPerSecond = Math.min(maxPermitsPerSecond, permitsPerSecond + minPermitsPerSecond);
+    }
+
+    /*
+     * Records a 429 and returns how long upstream is considered closed.
+     */
+    public synchronized Duration onThrottled(Duration retryAfter) {
+        Duration closedFor = retryAfter != null ? retryAfter : backoff;
+        backoff = backoff.multipliedBy(2).compareTo(maxBackoff) > 0 ? maxBackoff : backoff.multipliedBy(2);
+        blockedUntilNanos = Math.max(blockedUntilNanos, System.nanoTime() + closedFor.toNanos());
+        permitsPerSecond = Math.max(minPermitsPerSecond, permitsPerSecond / 2);
+        tokens = 0;
+        log.warn("Upstream throttled, pausing calls for {} ms at {} requests/s",
+                closedFor.toMillis(), String.format("%.2f", permitsPerSecond));
+        return closedFor;
+    }
+
+    /*
+     * Full-jitter exponential backoff for retrying failed idempotent calls.
+     */
+    public Duration retryDelay(int attempt) {
+        long ceiling = Math.min(maxBackoff.toNanos(), initialBackoff.toNanos() << Math.min(attempt, 20));
+        return Duration.ofNanos(ThreadLocalRandom.current().nextLong(ceiling + 1));
+    }
+
+    public static CompletableFuture<Void> delay(Duration delay) {
+        return CompletableFuture.runAsync(() -> {
+        }, CompletableFuture.delayedExecutor(delay.toNanos(), TimeUnit.NANOSECONDS));
+    }
+
+    /*
+     * Takes a permit and returns 0, or returns how long to wait before trying again.
+     */
+    private synchronized long tryAcquire(boolean write) {
+        long now = System.nanoTime();
+        if (now < blockedUntilNanos) {
+            return blockedUntilNanos - now;
+        }
+        tokens = Math.min(burst, tokens + (now - lastRefillNanos) * permitsPerSecond / TimeUnit.SECONDS.toNanos(1));
+        lastRefillNanos = now;
+        if (tokens >= 1 && (write || waitingWrites.get() == 0)) {
+            tokens -= 1;
+            return 0;
+        }
+        double missing = Math.max(1 - tokens, 0.01);
+        return Math.max(1, (long) (missing / permitsPerSecond * TimeUnit.SECONDS.toNanos(1)));
+    }
+}
@@ -0,0 +1,102 @@
+package com.reliaquest.api.outbound;
+
+import com.reliaquest.api.exception.CircuitOpenException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/*
+ * Circuit breaker around every upstream exchange.
+ *
+ * Closed: calls go through; after failure-threshold consecutive failures (5xx or I/O errors) the circuit opens.
+ * Open: calls fail fast with CircuitOpenException for open-duration, so a struggling upstream is not hammered by
+ * retries. Half-open: up to half-open-calls trial calls go through; if they all succeed the circuit closes, a single
+ * failure opens it again.
+ *
+ * 429s are neither: throttling is the rate limiter's business, and upstream is evidently up.
+ */
+@Slf4j
+@Component
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final int halfOpenCalls;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openUntilNanos;
+    private int trialsStarted;
+    private int trialsSucceeded;
+
+    public CircuitBreaker(@Value("${employee.api.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                          @Value("${employee.api.circuit-breaker.open-duration:30s}") Duration openDuration,
+                          @Value("${employee.api.circuit-breaker.half-open-calls:1}") int halfOpenCalls) {
+        if (failureThreshold < 1 || halfOpenCalls < 1 || openDuration.isNegative()) {
+            throw new IllegalArgumentException("Circuit breaker thresholds must be positive");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.halfOpenCalls = halfOpenCalls;
+    }
+
+    /*
+     * Takes permission for one call, or throws while the circuit is open (or half-open with all trials taken).
+     * Every permitted call must be followed by exactly one of onSuccess, onFailure or onIgnored.
+     */
+    public synchronized void acquire() throws CircuitOpenException {
+        if (state == State.OPEN) {
+            long remaining = openUntilNanos - System.nanoTime();
+            if (remaining > 0) {
+                throw new CircuitOpenException("Upstream unavailable, circuit open", Duration.ofNanos(remaining));
+            }
+            log.info("Circuit half-open, letting {} trial call(s) through", halfOpenCalls);
+            state = State.HALF_OPEN;
+            trialsStarted = 0;
+            trialsSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialsStarted >= halfOpenCalls) {
+                throw new CircuitOpenException("Upstream unavailable, circuit half-open", openDuration);
+            }
+            trialsStarted++;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        if (state == State.HALF_OPEN && ++trialsSucceeded >= halfOpenCalls) {
+            log.info("Circuit closed, upstream recovered");
+            state = State.CLOSED;
+        }
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            log.warn("Circuit open for {} after {} consecutive upstream failure(s)", openDuration, consecutiveFailures);
+            state = State.OPEN;
+            openUntilNanos = System.nanoTime() + openDuration.toNanos();
+        }
+    }
+
+    /*
+     * The call said nothing about upstream health (e.g. it was throttled); a half-open trial slot is handed back.
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN && trialsStarted > trialsSucceeded) {
+            trialsStarted--;
+        }
+    }
+
+    public synchronized State getState() {
+        if (state == State.OPEN && openUntilNanos - System.nanoTime() <= 0) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+}
@@ -2,136 +2,676 @@ package com.reliaquest.api.outbound;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.reliaquest.api.exception.ApiException;
-import com.reliaquest.api.inbound.model.DeleteDto;
+import com.reliaquest.api.exception.CircuitOpenException;
+import com.reliaquest.api.exception.RateLimitedException;
 import com.reliaquest.api.inbound.model.RequestDto;
 import com.reliaquest.api.outbound.model.AddResponse;
+import com.reliaquest.api.outbound.model.ChangeFeed;
+import com.reliaquest.api.outbound.model.ChangesResponse;
+import com.reliaquest.api.outbound.model.ColumnStats;
+import com.reliaquest.api.outbound.model.ColumnStatsResponse;
 import com.reliaquest.api.outbound.model.DeleteResponse;
+import com.reliaquest.api.outbound.model.GetResponse;
+import com.reliaquest.api.outbound.model.RosterResponse;
 import com.reliaquest.api.service.model.Employee;
 import com.reliaquest.api.service.model.EmployeeList;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLEncoder;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 
 
+/*
+ * Client for the mock employee server.
+ *
+ * Every call is asynchronous on HttpClient.sendAsync, so no thread is held while upstream is working; the blocking
+ * methods only wait for the asynchronous ones. The roster is parsed straight off the response stream, it is never
+ * buffered as a String.
+ *
+ * Unless prefer-smile is off, every request asks for Smile, Jackson's binary JSON, ahead of JSON, and each response is
+ * parsed as whatever its Content-Type says; an upstream without Smile answers JSON and is read as before.
+ */
 @Slf4j
 @Service
 public class EmployeeApi {
 
 
-    private final HttpClient httpClient = HttpClient.newHttpClient();
-    private final ObjectMapper objectMapper = new ObjectMapper();
-    private final String baseUrl = "http://localhost:8112/api/v1";
+    private final HttpClient httpClient;
+    // Set by the mock server on every roster response, including pages
+    static final String ROSTER_VERSION = "X-Roster-Version";
+    static final String TOTAL_COUNT = "X-Total-Count";
+    static final String APPLICATION_SMILE = "application/x-jackson-smile";
 
-    public EmployeeApi() {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final EmployeeStreamReader employeeStreamReader = new EmployeeStreamReader(objectMapper);
+    private final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+    private final EmployeeStreamReader smileStreamReader = new EmployeeStreamReader(smileMapper);
+    private final String accept;
+    private final ExecutorService executor;
+    private final String baseUrl;
+    private final Duration requestTimeout;
+    private final AdaptiveRateLimiter rateLimiter;
+    private final CircuitBreaker circuitBreaker;
+    private final int maxAttempts;
+    private final int pageSize;
+    private final int pageParallelism;
+    // Concurrent callers for the same upstream resource share one exchange and one parsed result
+    private final SingleFlight<String, EmployeeList> rosterFetches;
+    private final SingleFlight<String, Employee> lookups;
+    private final SingleFlight<String, String> deletes;
+    private final UpstreamMetrics rosterMetrics;
+    private final UpstreamMetrics changesMetrics;
+    private final UpstreamMetrics aggregateMetrics;
+    private final UpstreamMetrics lookupMetrics;
+    private final UpstreamMetrics createMetrics;
+    private final UpstreamMetrics deleteMetrics;
+    // Built once so recording body sizes adds nothing per request
+    private final HttpResponse.BodyHandler<InputStream> rosterBodies;
+    private final HttpResponse.BodyHandler<byte[]> changesBodies;
+    private final HttpResponse.BodyHandler<byte[]> aggregateBodies;
+    private final HttpResponse.BodyHandler<byte[]> lookupBodies;
+    private final HttpResponse.BodyHandler<byte[]> createBodies;
+    private final HttpResponse.BodyHandler<byte[]> deleteBodies;
 
+    public EmployeeApi(@Value("${employee.api.base-url:http://localhost:8112/api/v1}") String baseUrl,
+                       @Value("${employee.api.request-timeout:10s}") Duration requestTimeout,
+                       @Value("${employee.api.coalesce-wait:15s}") Duration coalesceWait,
+                       @Value("${employee.api.retry.max-attempts:3}") int maxAttempts,
+                       @Value("${employee.api.page-size:0}") int pageSize,
+                       @Value("${employee.api.page-parallelism:4}") int pageParallelism,
+                       @Value("${employee.api.prefer-smile:true}") boolean preferSmile,
+                       @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                       AdaptiveRateLimiter rateLimiter,
+                       CircuitBreaker circuitBreaker,
+                       MeterRegistry meterRegistry) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("employee.api.retry.max-attempts must be positive");
+        }
+        if (pageSize < 0 || pageParallelism < 1) {
+            throw new IllegalArgumentException(
+                    "employee.api.page-size must not be negative and page-parallelism must be positive");
+        }
+        this.baseUrl = baseUrl;
+        this.requestTimeout = requestTimeout;
+        this.maxAttempts = maxAttempts;
+        this.pageSize = pageSize;
+        this.pageParallelism = pageParallelism;
+        this.accept = preferSmile ? APPLICATION_SMILE + ", application/json;q=0.9" : "application/json";
+        this.rateLimiter = rateLimiter;
+        this.circuitBreaker = circuitBreaker;
+        // Response handling, every dependent stage and the blocking body reads run here
+        this.executor = virtualThreads
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("employee-api-", 0).factory())
+                : Executors.newCachedThreadPool(Thread.ofPlatform().name("employee-api-", 0).daemon().factory());
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(requestTimeout)
+                .executor(executor)
+                .build();
+        this.rosterFetches = new SingleFlight<>(coalesceWait);
+        this.lookups = new SingleFlight<>(coalesceWait);
+        this.deletes = new SingleFlight<>(coalesceWait);
+        this.rosterMetrics = new UpstreamMetrics(meterRegistry, "roster");
+        this.changesMetrics = new UpstreamMetrics(meterRegistry, "changes");
+        this.aggregateMetrics = new UpstreamMetrics(meterRegistry, "aggregates");
+        this.lookupMetrics = new UpstreamMetrics(meterRegistry, "lookup");
+        this.createMetrics = new UpstreamMetrics(meterRegistry, "create");
+        this.deleteMetrics = new UpstreamMetrics(meterRegistry, "delete");
+        this.rosterBodies = rosterMetrics.counting(HttpResponse.BodyHandlers.ofInputStream());
+        this.changesBodies = changesMetrics.counting(HttpResponse.BodyHandlers.ofByteArray());
+        this.aggregateBodies = aggregateMetrics.counting(HttpResponse.BodyHandlers.ofByteArray());
+        this.lookupBodies = lookupMetrics.counting(HttpResponse.BodyHandlers.ofByteArray());
+        this.createBodies = createMetrics.counting(HttpResponse.BodyHandlers.ofByteArray());
+        this.deleteBodies = deleteMetrics.counting(HttpResponse.BodyHandlers.ofByteArray());
     }
+
     public EmployeeList getAllEmployees() throws ApiException {
+        return Futures.await(getAllEmployeesAsync());
+    }
+
+    public CompletableFuture<EmployeeList> getAllEmployeesAsync() {
+        return rosterFetches.execute("/employee", this::fetchAllEmployees);
+    }
+
+    private CompletableFuture<EmployeeList> fetchAllEmployees() {
+        List<Employee> employees = new ArrayList<>();
+        return streamAllEmployeesAsync(null, employees::add).thenApply(response -> {
+            EmployeeList list = new EmployeeList();
+            list.setData(employees);
+            list.setStatus(response.getStatus());
+            return list;
+        });
+    }
+
+    /*
+     * Streams the roster into the sink as it is parsed, without buffering the body; completes with the envelope status,
+     * the roster's ETag and its X-Roster-Version. Given the ETag of a roster the caller holds, upstream may answer 304
+     * instead, which completes as notModified without touching the sink.
+     * With a page size configured the roster is fetched in pages instead, see streamPagesAsync.
+     * Not coalesced: every caller gets its own exchange, since the sink is theirs.
+     */
+    public CompletableFuture<RosterResponse> streamAllEmployeesAsync(String ifNoneMatch, Consumer<Employee> sink) {
+        if (pageSize > 0) {
+            // Pages are separate representations upstream and carry no ETag to revalidate
+            return streamPagesAsync(null, sink);
+        }
+        return sendPageAsync(0, 0, null, ifNoneMatch, sink).thenApply(page -> page.notModified()
+                ? RosterResponse.notModified(page.etag() != null ? page.etag() : ifNoneMatch)
+                : RosterResponse.loaded(page.status(), page.etag(), page.version()));
+    }
+
+    /*
+     * Streams the roster with only the given fields, named as upstream serializes them; everything else is left unset.
+     * Paged like streamAllEmployeesAsync.
+     */
+    public CompletableFuture<RosterResponse> streamEmployeesAsync(List<String> fields, Consumer<Employee> sink) {
+        if (pageSize > 0) {
+            return streamPagesAsync(fields, sink);
+        }
+        return sendPageAsync(0, 0, fields, null, sink)
+                .thenApply(page -> RosterResponse.loaded(page.status(), null, page.version()));
+    }
+
+    /*
+     * Fetches the first page to learn the roster size, then the rest with up to page-parallelism requests in flight,
+     * each parsed on its own. Pages reach the sink in order, each as soon as those before it have, so no more than
+     * page-parallelism pages are ever held; a page is only requested once the page that many before it is handed over.
+     *
+     * Every page must be cut from the roster version of the first. If the roster changes underneath, the sink has
+     * seen part of it already, so the fetch fails with 409 Conflict and the caller starts over with a fresh sink.
+     */
+    private CompletableFuture<RosterResponse> streamPagesAsync(List<String> fields, Consumer<Employee> sink) {
+        return sendPageAsync(0, pageSize, fields, null, sink).thenCompose(first -> {
+            if (first.total() < 0) {
+                throw Futures.fail(new ApiException("Employee roster page came without a valid " + TOTAL_COUNT,
+                        HttpStatus.BAD_GATEWAY.value()));
+            }
+            int pageCount = Math.max(1, (first.total() + pageSize - 1) / pageSize);
+            List<CompletableFuture<Void>> delivered = new ArrayList<>(pageCount);
+            delivered.add(CompletableFuture.completedFuture(null));
+            for (int i = 1; i < pageCount; i++) {
+                int index = i;
+                CompletableFuture<Void> slot = index > pageParallelism
+                        ? delivered.get(index - pageParallelism)
+                        : CompletableFuture.completedFuture(null);
+                CompletableFuture<List<Employee>> page = slot.thenCompose(ignored -> fetchPage(index, fields, first));
+                delivered.add(delivered.get(index - 1).thenCombine(page, (ignored, employees) -> {
+                    employees.forEach(sink);
+                    return null;
+                }));
+            }
+            return delivered.get(pageCount - 1).thenApply(ignored -> {
+                log.info("Successfully fetched all employees from EmployeeApi in {} pages", pageCount);
+                return RosterResponse.loaded(first.status(), null, first.version());
+            });
+        });
+    }
+
+    private CompletableFuture<List<Employee>> fetchPage(int index, List<String> fields, Page first) {
+        List<Employee> employees = new ArrayList<>(pageSize);
+        return sendPageAsync(index * pageSize, pageSize, fields, null, employees::add).thenApply(page -> {
+            if (!Objects.equals(page.version(), first.version())) {
+                log.debug("Employee roster moved from {} to {} between pages", first.version(), page.version());
+                throw Futures.fail(new ApiException("Employee roster changed while it was fetched in pages",
+                        HttpStatus.CONFLICT.value()));
+            }
+            return employees;
+        });
+    }
+
+    /*
+     * One roster request; a limit of 0 means everything from the offset on, and null fields every field.
+     */
+    private CompletableFuture<Page> sendPageAsync(int offset, int limit, List<String> fields, String ifNoneMatch,
+                                                  Consumer<Employee> sink) {
+        StringBuilder query = new StringBuilder();
+        if (offset > 0) {
+            query.append("&offset=").append(offset);
+        }
+        if (limit > 0) {
+            query.append("&limit=").append(limit);
+        }
+        if (fields != null) {
+            query.append("&fields=").append(URLEncoder.encode(String.join(",", fields), StandardCharsets.UTF_8));
+        }
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .headers("Accept", accept)
+                .uri(java.net.URI.create(baseUrl + "/employee" + (query.isEmpty() ? "" : "?" + query.substring(1))))
+                .timeout(requestTimeout)
+                .GET();
+        if (ifNoneMatch != null) {
+            builder.header("If-None-Match", ifNoneMatch);
+        }
+        HttpRequest request = builder.build();
+
+        return sendAsync(request, rosterBodies, rosterMetrics, RequestPriority.READ, true)
+                .thenApplyAsync(response -> {
+                    String etag = response.headers().firstValue("ETag").orElse(null);
+                    if (response.statusCode() == HttpStatus.NOT_MODIFIED.value()) {
+                        closeQuietly(response.body());
+                        log.debug("Employee roster {} not modified upstream", ifNoneMatch);
+                        return new Page(null, etag, null, 0, true);
+                    }
+                    if (HttpStatus.valueOf(response.statusCode()).is2xxSuccessful()) {
+                        try {
+                            long started = System.nanoTime();
+                            String status = (isSmile(response) ? smileStreamReader : employeeStreamReader)
+                                    .read(response.body(), sink);
+                            rosterMetrics.recordRead(started);
+                            if (limit == 0) {
+                                log.info("Successfully fetched all employees from EmployeeApi");
+                            }
+                            return new Page(status, etag,
+                                    response.headers().firstValue(ROSTER_VERSION).orElse(null),
+                                    totalCount(response), false);
+                        } catch (IOException e) {
+                            log.error("Failed to read employee list", e);
+                            throw Futures.fail(new ApiException("Invalid response format", response.statusCode(), e));
+                        }
+                    }
+                    closeQuietly(response.body());
+                    log.error("Unexpected error fetching employees. Status: {}", response.statusCode());
+                    throw Futures.fail(new ApiException("Failed to fetch employees", response.statusCode()));
+                }, executor)
+                .whenComplete((page, error) -> {
+                    if (error != null) {
+                        log.error("Error fetching employees: {}", Futures.unwrap(error).getMessage());
+                    }
+                });
+    }
+
+    /*
+     * What one roster response said about the roster besides its employees; total is -1 when it did not say.
+     */
+    private record Page(String status, String etag, String version, int total, boolean notModified) {
+    }
+
+    private static int totalCount(HttpResponse<?> response) {
+        try {
+            long total = response.headers().firstValueAsLong(TOTAL_COUNT).orElse(-1);
+            return total < 0 || total > Integer.MAX_VALUE ? -1 : (int) total;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /*
+     * The roster changes upstream since the given version, for a caller that keeps its own copy of the roster in sync.
+     */
+    public CompletableFuture<ChangeFeed> getChangesAsync(String since) {
         HttpRequest request = HttpRequest.newBuilder()
-                .headers("Accept", "application/json")
-                .uri(java.net.URI.create(baseUrl + "/employee"))
+                .headers("Accept", accept)
+                .uri(java.net.URI.create(baseUrl + "/employee/changes?since="
+                        + URLEncoder.encode(since, StandardCharsets.UTF_8)))
+                .timeout(requestTimeout)
                 .GET()
                 .build();
 
-        try {
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
-            if (HttpStatus.valueOf(response.statusCode()).is2xxSuccessful()) {
-                log.info("Successfully fetched all employees from EmployeeApi");
-                return objectMapper.readValue(response.body(), EmployeeList.class);
-            } else {
-                log.error("Unexpected error fetching employees. Status: {}", response.statusCode());
-                throw new ApiException("Failed to fetch employees", response.statusCode());
-            }
+        return sendAsync(request, changesBodies, changesMetrics, RequestPriority.READ, true)
+                .thenApply(response -> {
+                    if (HttpStatus.valueOf(response.statusCode()).is2xxSuccessful()) {
+                        ChangeFeed feed = readValue(response, ChangesResponse.class, changesMetrics).getData();
+                        if (feed == null) {
+                            throw Futures.fail(new ApiException("Invalid response format", response.statusCode()));
+                        }
+                        log.debug("Fetched {} employee changes since {}", feed.getChanges().size(), since);
+                        return feed;
+                    }
+                    log.warn("Failed to fetch employee changes since {}. Status: {}", since, response.statusCode());
+                    throw Futures.fail(new ApiException("Failed to fetch employee changes", response.statusCode()));
+                });
+    }
 
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.error("Thread interrupted while fetching employees", e);
-            throw new ApiException("Request interrupted", 0, e);
-        } catch (IOException e) {
-            log.error("IO exception while fetching employees", e);
-            throw new ApiException("Network error occurred", 0, e);
+    /*
+     * Count, min, max and mean of the salaries upstream, computed there instead of over a downloaded roster.
+     */
+    public CompletableFuture<ColumnStats> getSalaryStatsAsync() {
+        return getAggregateAsync("/employee/stats/salary", ColumnStatsResponse.class, "salary stats")
+                .thenApply(ColumnStatsResponse::getData);
+    }
+
+    /*
+     * The limit highest earners upstream, highest first, with their id, name and salary only.
+     */
+    public CompletableFuture<List<Employee>> getTopEarnersAsync(int limit) {
+        return getAggregateAsync("/employee/top-earners?limit=" + limit, EmployeeList.class, "top earners")
+                .thenApply(EmployeeList::getData);
+    }
+
+    private <T> CompletableFuture<T> getAggregateAsync(String path, Class<T> type, String what) {
+        HttpRequest request = HttpRequest.newBuilder()
+                .headers("Accept", accept)
+                .uri(java.net.URI.create(baseUrl + path))
+                .timeout(requestTimeout)
+                .GET()
+                .build();
+
+        return sendAsync(request, aggregateBodies, aggregateMetrics, RequestPriority.READ, true)
+                .thenApply(response -> {
+                    if (HttpStatus.valueOf(response.statusCode()).is2xxSuccessful()) {
+                        return readValue(response, type, aggregateMetrics);
+                    }
+                    log.warn("Failed to fetch {}. Status: {}", what, response.statusCode());
+                    throw Futures.fail(new ApiException("Failed to fetch " + what, response.statusCode()));
+                });
+    }
+
+    public Employee getEmployeeById(String id) throws ApiException {
+        return Futures.await(getEmployeeByIdAsync(id));
+    }
+
+    /*
+     * Point lookup of one employee, coalesced per id. Completes with null when upstream does not know the id.
+     */
+    public CompletableFuture<Employee> getEmployeeByIdAsync(String id) {
+        return lookups.execute(id, () -> fetchEmployee(id));
+    }
+
+    private CompletableFuture<Employee> fetchEmployee(String id) {
+        if (!isUpstreamId(id)) {
+            // Upstream ids are UUIDs and it answers anything else with a 500, so there is nothing to ask
+            log.info("Employee with id: {} not found", id);
+            return CompletableFuture.completedFuture(null);
         }
+
+        HttpRequest request = HttpRequest.newBuilder()
+                .headers("Accept", accept)
+                .uri(employeeUri(id))
+                .timeout(requestTimeout)
+                .GET()
+                .build();
+
+        return sendAsync(request, lookupBodies, lookupMetrics, RequestPriority.READ, true)
+                .thenApply(response -> {
+                    if (HttpStatus.valueOf(response.statusCode()).is2xxSuccessful()) {
+                        log.info("Successfully fetched employee with id: {}", id);
+                        return readValue(response, GetResponse.class, lookupMetrics).getData();
+                    }
+                    if (response.statusCode() == HttpStatus.NOT_FOUND.value()) {
+                        log.info("Employee with id: {} not found", id);
+                        return null;
+                    }
+                    log.error("Failed to fetch employee with id: {}. Status: {}", id, response.statusCode());
+                    throw Futures.fail(new ApiException("Failed to fetch employee", response.statusCode()));
+                })
+                .whenComplete((employee, error) -> {
+                    if (error != null) {
+                        log.error("Error fetching employee with id: {}", id, Futures.unwrap(error));
+                    }
+                });
     }
+
     public Employee addEmployee(RequestDto employee) throws ApiException {
-        String requestBody = toJson(employee);
+        return Futures.await(addEmployeeAsync(employee));
+    }
+
+    public CompletableFuture<Employee> addEmployeeAsync(RequestDto employee) {
+        String requestBody;
+        try {
+            requestBody = toJson(employee);
+        } catch (ApiException e) {
+            return CompletableFuture.failedFuture(e);
+        }
 
         HttpRequest request = HttpRequest.newBuilder()
                 .uri(java.net.URI.create(baseUrl + "/employee"))
+                .header("Accept", accept)
                 .header("Content-Type", "application/json")
+                .timeout(requestTimeout)
                 .POST(HttpRequest.BodyPublishers.ofString(requestBody))
                 .build();
 
-        try {
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        return sendAsync(request, createBodies, createMetrics, RequestPriority.WRITE, false)
+                .thenApply(response -> {
+                    if (HttpStatus.valueOf(response.statusCode()).is2xxSuccessful()) {
+                        log.info("Successfully added employee: {}", employee.getName());
+                        return readValue(response, AddResponse.class, createMetrics).getData();
+                    }
+                    log.error("Failed to add employee: {}. Status: {}", employee.getName(), response.statusCode());
+                    throw Futures.fail(new ApiException("Failed to add employee", response.statusCode()));
+                })
+                .whenComplete((created, error) -> {
+                    if (error != null) {
+                        log.error("Error adding employee: {}", employee.getName(), Futures.unwrap(error));
+                    }
+                });
+    }
 
-            if (HttpStatus.valueOf(response.statusCode()).is2xxSuccessful()) {
-                log.info("Successfully added employee: {}", employee.getName());
-                return objectMapper.readValue(response.body(), AddResponse.class).getData();
-            }
+    public String deleteEmployeeById(String id) throws ApiException {
+        return Futures.await(deleteEmployeeByIdAsync(id));
+    }
 
-            log.error("Failed to add employee: {}. Status: {}", employee.getName(), response.statusCode());
-            throw new ApiException("Failed to add employee", response.statusCode());
+    public CompletableFuture<String> deleteEmployeeByIdAsync(String id) {
+        return deletes.execute(id, () -> sendDelete(id));
+    }
 
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.error("Thread interrupted while adding employee: {}", employee.getName(), e);
-            throw new ApiException("Request interrupted", 0, e);
-        } catch (IOException e) {
-            log.error("IO error adding employee: {}", employee.getName(), e);
-            throw new ApiException("Network error occurred", 0, e);
+    private CompletableFuture<String> sendDelete(String id) {
+        if (!isUpstreamId(id)) {
+            log.warn("Employee with id: {} not found", id);
+            return CompletableFuture.completedFuture(null);
         }
-    }
-    public String deleteEmployeeById(String id) throws ApiException {
-        DeleteDto dto = new DeleteDto();
-        dto.setName(id);
-        String requestBody = toJson(dto);
 
         HttpRequest request = HttpRequest.newBuilder()
-                .header("Content-Type", "application/json")
-                .uri(java.net.URI.create(baseUrl + "/employee"))
-                .method("DELETE", HttpRequest.BodyPublishers.ofString(requestBody))
+                .headers("Accept", accept)
+                .uri(employeeUri(id))
+                .timeout(requestTimeout)
+                .DELETE()
                 .build();
 
-        try {
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            if (HttpStatus.valueOf(response.statusCode()).is2xxSuccessful()) {
-                try {
-                    DeleteResponse deleteResponse = new DeleteResponse();
-                    deleteResponse = objectMapper.readValue(response.body(), DeleteResponse.class);
-                    if (deleteResponse.isData()) {
+        return sendAsync(request, deleteBodies, deleteMetrics, RequestPriority.WRITE, true)
+                .thenApply(response -> {
+                    if (HttpStatus.valueOf(response.statusCode()).is2xxSuccessful()
+                            && readValue(response, DeleteResponse.class, deleteMetrics).isData()) {
                         log.info("Successfully deleted employee with id: {}", id);
-                    } else {
-                        //TODO : What do you want to do if employee not found? but request was successful?
+                        return id;
+                    }
+                    if (HttpStatus.valueOf(response.statusCode()).is2xxSuccessful()
+                            || response.statusCode() == HttpStatus.NOT_FOUND.value()) {
+                        // Also what a retry sees when an earlier attempt got through
                         log.warn("Employee with id: {} not found", id);
                         return null;
                     }
-                    return id;
-                } catch (JsonProcessingException e) {
-                    log.error("Failed to parse delete response", e);
-                    throw new ApiException("Invalid response format", response.statusCode());
-                }
+                    log.error("Failed to delete employee. Status: {}", response.statusCode());
+                    throw Futures.fail(new ApiException("Failed to delete employee", response.statusCode()));
+                })
+                .whenComplete((deleted, error) -> {
+                    if (error != null) {
+                        log.error("Error deleting employee with id: {}", id, Futures.unwrap(error));
+                    }
+                });
+    }
+
+    /*
+     * Sends through the circuit breaker and the rate limiter. A 429 is recorded and the call is retried once upstream
+     * is expected to accept again, if that fits the caller's wait budget. Idempotent calls are also retried with
+     * jittered backoff on 5xx and I/O errors. Once attempts run out the last response or error goes back to the caller.
+     */
+    private <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> handler,
+                                                             UpstreamMetrics metrics, RequestPriority priority,
+                                                             boolean idempotent) {
+        return sendAsync(request, handler, metrics, priority, idempotent, 1);
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> handler,
+                                                             UpstreamMetrics metrics, RequestPriority priority,
+                                                             boolean idempotent, int attempt) {
+        try {
+            // Retries come back through here, so an open circuit also stops a retry storm
+            circuitBreaker.acquire();
+        } catch (CircuitOpenException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return rateLimiter.acquireAsync(priority)
+                .whenComplete((permit, error) -> {
+                    if (error != null) {
+                        circuitBreaker.onIgnored();
+                    }
+                })
+                .thenCompose(permit -> {
+                    long started = System.nanoTime();
+                    return httpClient.sendAsync(request, handler)
+                        .handle((response, error) -> {
+                            metrics.recordExchange(started);
+                            if (error != null) {
+                                Throwable cause = Futures.unwrap(error);
+                                if (cause instanceof IOException) {
+                                    metrics.recordFailure();
+                                    circuitBreaker.onFailure();
+                                } else {
+                                    circuitBreaker.onIgnored();
+                                }
+                                if (!(cause instanceof IOException) || !idempotent || attempt >= maxAttempts) {
+                                    return CompletableFuture.<HttpResponse<T>>failedFuture(cause);
+                                }
+                                log.warn("IO error calling {}, retrying (attempt {} of {})",
+                                        request.uri(), attempt, maxAttempts);
+                                return retryLater(request, handler, metrics, priority, idempotent, attempt);
+                            }
+                            metrics.recordStatus(response.statusCode());
+                            recordOutcome(response.statusCode());
+                            return onResponse(request, handler, metrics, priority, idempotent, attempt, response);
+                        })
+                        .thenCompose(next -> next);
+                });
+    }
+
+    private void recordOutcome(int status) {
+        if (status >= 500) {
+            circuitBreaker.onFailure();
+        } else if (status == HttpStatus.TOO_MANY_REQUESTS.value()) {
+            circuitBreaker.onIgnored();
+        } else {
+            circuitBreaker.onSuccess();
+        }
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> onResponse(HttpRequest request, HttpResponse.BodyHandler<T> handler,
+                                                              UpstreamMetrics metrics, RequestPriority priority,
+                                                              boolean idempotent, int attempt,
+                                                              HttpResponse<T> response) {
+        int status = response.statusCode();
+        if (status == HttpStatus.TOO_MANY_REQUESTS.value()) {
+            closeQuietly(response.body());
+            Duration closedFor = rateLimiter.onThrottled(retryAfter(response));
+            if (attempt >= maxAttempts) {
+                return CompletableFuture.failedFuture(
+                        new RateLimitedException("Upstream rate limit exceeded", closedFor));
+            }
+            // The limiter holds the retry until upstream reopens, or sheds it if that is too far away
+            return sendAsync(request, handler, metrics, priority, idempotent, attempt + 1);
+        }
+        if (status >= 500 && idempotent && attempt < maxAttempts) {
+            closeQuietly(response.body());
+            log.warn("Upstream returned {} for {}, retrying (attempt {} of {})",
+                    status, request.uri(), attempt, maxAttempts);
+            return retryLater(request, handler, metrics, priority, idempotent, attempt);
+        }
+        if (status < 500) {
+            rateLimiter.onSuccess();
+        }
+        return CompletableFuture.completedFuture(response);
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> retryLater(HttpRequest request, HttpResponse.BodyHandler<T> handler,
+                                                              UpstreamMetrics metrics, RequestPriority priority,
+                                                              boolean idempotent, int attempt) {
+        return AdaptiveRateLimiter.delay(rateLimiter.retryDelay(attempt))
+                .thenCompose(ignored -> sendAsync(request, handler, metrics, priority, idempotent, attempt + 1));
+    }
+
+    private java.net.URI employeeUri(String id) {
+        return java.net.URI.create(baseUrl + "/employee/" + URLEncoder.encode(id, StandardCharsets.UTF_8));
+    }
+
+    private static boolean isUpstreamId(String id) {
+        try {
+            UUID.fromString(id);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static void closeQuietly(Object body) {
+        if (body instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                log.debug("Failed to close response body", e);
             }
+        }
+    }
 
-            log.error("Failed to delete employee. Status: {}", response.statusCode());
-            throw new ApiException("Failed to delete employee", response.statusCode());
+    private static Duration retryAfter(HttpResponse<?> response) {
+        return response.headers().firstValue("Retry-After")
+                .map(String::trim)
+                .map(value -> {
+                    try {
+                        return Duration.ofSeconds(Long.parseLong(value));
+                    } catch (NumberFormatException notSeconds) {
+                        try {
+                            Instant until = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME)
+                                    .toInstant();
+                            Duration wait = Duration.between(Instant.now(), until);
+                            return wait.isNegative() ? Duration.ZERO : wait;
+                        } catch (DateTimeParseException notDate) {
+                            log.warn("Ignoring unparseable Retry-After header: {}", value);
+                            return null;
+                        }
+                    }
+                })
+                .orElse(null);
+    }
+
+    private static boolean isSmile(HttpResponse<?> response) {
+        return response.headers().firstValue("Content-Type")
+                .map(contentType -> contentType.regionMatches(true, 0, APPLICATION_SMILE, 0,
+                        APPLICATION_SMILE.length()))
+                .orElse(false);
+    }
 
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.error("Thread interrupted while deleting employee with id: {}", id, e);
-            throw new ApiException("Request interrupted", 0, e);
+    private <T> T readValue(HttpResponse<byte[]> response, Class<T> type, UpstreamMetrics metrics) {
+        long started = System.nanoTime();
+        try {
+            return (isSmile(response) ? smileMapper : objectMapper).readValue(response.body(), type);
         } catch (IOException e) {
-            log.error("IO error deleting employee with id: {}", id, e);
-            throw new ApiException("Network error occurred", 0, e);
+            log.error("Failed to parse {} response", type.getSimpleName(), e);
+            throw Futures.fail(new ApiException("Invalid response format", response.statusCode(), e));
+        } finally {
+            metrics.recordRead(started);
         }
     }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
     private String toJson(Object obj) throws ApiException {
         try {
             return objectMapper.writeValueAsString(obj);
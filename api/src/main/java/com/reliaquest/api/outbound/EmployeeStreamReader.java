@@ -0,0 +1,68 @@
+package com.reliaquest.api.outbound;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.reliaquest.api.service.model.Employee;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/*
+ * Streams the upstream roster envelope ({"data": [...], "status": "..."}) one employee at a time.
+ *
+ * Only the employee being read is materialized, so memory does not grow with the payload; whatever consumes the
+ * employees decides what is kept. Unknown envelope fields and null elements are skipped.
+ */
+public class EmployeeStreamReader {
+
+    private final ObjectMapper objectMapper;
+    private final ObjectReader employeeReader;
+
+    public EmployeeStreamReader(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.employeeReader = objectMapper.readerFor(Employee.class);
+    }
+
+    /*
+     * Feeds every employee in the body to the sink and returns the envelope status. The stream is closed.
+     */
+    public String read(InputStream body, Consumer<Employee> sink) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected employee list object");
+            }
+
+            String status = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("data".equals(field) && value == JsonToken.START_ARRAY) {
+                    readEmployees(parser, sink);
+                } else if ("status".equals(field) && value == JsonToken.VALUE_STRING) {
+                    status = parser.getText();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return status;
+        }
+    }
+
+    private void readEmployees(JsonParser parser, Consumer<Employee> sink) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == null) {
+                throw new JsonParseException(parser, "Unexpected end of employee list");
+            }
+            if (token == JsonToken.START_OBJECT) {
+                sink.accept(employeeReader.readValue(parser));
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.reliaquest.api.outbound;
+
+import com.reliaquest.api.exception.ApiException;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/*
+ * Bridges the asynchronous upstream path to blocking callers and keeps the ApiException contract on both sides.
+ */
+public final class Futures {
+
+    private Futures() {
+    }
+
+    public static <T> T await(CompletableFuture<T> future) throws ApiException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiException("Request interrupted", 0, e);
+        } catch (ExecutionException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw toApiException(cause);
+        }
+    }
+
+    /*
+     * Completes with the given ApiException from inside a future pipeline.
+     */
+    public static CompletionException fail(ApiException e) {
+        return new CompletionException(e);
+    }
+
+    public static Throwable unwrap(Throwable error) {
+        Throwable current = error;
+        while ((current instanceof CompletionException || current instanceof ExecutionException)
+                && current.getCause() != null) {
+            current = current.getCause();
+        }
+        return current;
+    }
+
+    public static ApiException toApiException(Throwable error) {
+        Throwable cause = unwrap(error);
+        if (cause instanceof ApiException apiException) {
+            return apiException;
+        }
+        if (cause instanceof IOException) {
+            return new ApiException("Network error occurred", 0, cause);
+        }
+        return new ApiException("Upstream request failed", 0, cause);
+    }
+}
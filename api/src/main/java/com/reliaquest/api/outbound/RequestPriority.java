@@ -0,0 +1,9 @@
+package com.reliaquest.api.outbound;
+
+/*
+ * Writes are queued for the upstream budget, reads are shed first because they can be answered from the cache.
+ */
+public enum RequestPriority {
+    READ,
+    WRITE
+}
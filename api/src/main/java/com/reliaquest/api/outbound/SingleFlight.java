@@ -0,0 +1,67 @@
+package com.reliaquest.api.outbound;
+
+import com.reliaquest.api.exception.ApiException;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/*
+ * Coalesces concurrent calls for the same key into one execution.
+ *
+ * The first caller for a key starts the call; everyone arriving while it is in flight gets the same result (or
+ * failure), giving up after the configured wait. Nothing is cached: once the call completes the next caller starts
+ * a new one.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Duration maxWait;
+
+    public SingleFlight(Duration maxWait) {
+        this.maxWait = maxWait;
+    }
+
+    public CompletableFuture<V> execute(K key, Supplier<CompletableFuture<V>> call) {
+        CompletableFuture<V> leader = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, leader);
+        if (existing != null) {
+            return follow(key, existing);
+        }
+
+        CompletableFuture<V> started;
+        try {
+            started = call.get();
+        } catch (RuntimeException e) {
+            started = CompletableFuture.failedFuture(e);
+        }
+        started.whenComplete((value, error) -> {
+            inFlight.remove(key, leader);
+            if (error != null) {
+                leader.completeExceptionally(Futures.unwrap(error));
+            } else {
+                leader.complete(value);
+            }
+        });
+        return leader.copy();
+    }
+
+    private CompletableFuture<V> follow(K key, CompletableFuture<V> leader) {
+        return leader.copy()
+                .orTimeout(maxWait.toNanos(), TimeUnit.NANOSECONDS)
+                .exceptionallyCompose(error -> {
+                    Throwable cause = Futures.unwrap(error);
+                    if (cause instanceof TimeoutException) {
+                        return CompletableFuture.failedFuture(new ApiException(
+                                "Timed out waiting for in-flight request " + key,
+                                HttpStatus.GATEWAY_TIMEOUT.value(), cause));
+                    }
+                    return CompletableFuture.failedFuture(cause);
+                });
+    }
+}
@@ -0,0 +1,135 @@
+package com.reliaquest.api.outbound;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/*
+ * Meters for one upstream operation (roster, lookup, create, delete).
+ *
+ * Everything is registered up front, or once per status code, and recorded from System.nanoTime deltas, so the
+ * request path does no meter lookups and builds no Timer.Sample, tag arrays or boxed status codes. The one
+ * allocation per response is the small subscriber wrapper that counts its body bytes.
+ */
+class UpstreamMetrics {
+
+    private static final int MAX_STATUS = 600;
+
+    private final MeterRegistry registry;
+    private final String operation;
+    private final Timer exchanges;
+    private final Timer reads;
+    private final DistributionSummary bytesReceived;
+    private final Counter failures;
+    private final AtomicReferenceArray<Counter> responses = new AtomicReferenceArray<>(MAX_STATUS);
+
+    UpstreamMetrics(MeterRegistry registry, String operation) {
+        this.registry = registry;
+        this.operation = operation;
+        this.exchanges = Timer.builder("employee.api.requests")
+                .description("Time from sending an upstream request until its response is available, per attempt")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(registry);
+        this.reads = Timer.builder("employee.api.read")
+                .description("Time spent reading and parsing upstream response bodies")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(registry);
+        this.bytesReceived = DistributionSummary.builder("employee.api.response.size")
+                .description("Upstream response body size")
+                .baseUnit("bytes")
+                .tag("operation", operation)
+                .register(registry);
+        this.failures = Counter.builder("employee.api.failures")
+                .description("Upstream attempts that got no response (I/O errors, timeouts)")
+                .tag("operation", operation)
+                .register(registry);
+    }
+
+    void recordExchange(long startNanos) {
+        exchanges.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    void recordRead(long startNanos) {
+        reads.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    void recordFailure() {
+        failures.increment();
+    }
+
+    void recordStatus(int status) {
+        int slot = status > 0 && status < MAX_STATUS ? status : 0;
+        Counter counter = responses.get(slot);
+        if (counter == null) {
+            // Registering is idempotent, so a race here only costs a lookup
+            counter = Counter.builder("employee.api.responses")
+                    .description("Upstream responses by status code")
+                    .tag("operation", operation)
+                    .tag("status", slot == 0 ? "unknown" : Integer.toString(slot))
+                    .register(registry);
+            responses.set(slot, counter);
+        }
+        counter.increment();
+    }
+
+    /*
+     * Wraps a body handler so the bytes of every body it receives are recorded. Build once and reuse.
+     */
+    <T> HttpResponse.BodyHandler<T> counting(HttpResponse.BodyHandler<T> handler) {
+        return responseInfo -> new CountingSubscriber<>(handler.apply(responseInfo), bytesReceived);
+    }
+
+    private static class CountingSubscriber<T> implements HttpResponse.BodySubscriber<T> {
+
+        private final HttpResponse.BodySubscriber<T> delegate;
+        private final DistributionSummary bytesReceived;
+        // onNext calls are serialized by the client
+        private long bytes;
+
+        CountingSubscriber(HttpResponse.BodySubscriber<T> delegate, DistributionSummary bytesReceived) {
+            this.delegate = delegate;
+            this.bytesReceived = bytesReceived;
+        }
+
+        @Override
+        public CompletionStage<T> getBody() {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            delegate.onSubscribe(subscription);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> items) {
+            for (int i = 0; i < items.size(); i++) {
+                bytes += items.get(i).remaining();
+            }
+            delegate.onNext(items);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            bytesReceived.record(bytes);
+            delegate.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            bytesReceived.record(bytes);
+            delegate.onComplete();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.reliaquest.api.outbound.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * The roster changes after a version, oldest first, and the version they bring the roster to. resync means upstream
+ * no longer has all of them and the roster has to be loaded whole.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ChangeFeed {
+
+    @JsonProperty("version")
+    private String version;
+
+    @JsonProperty("resync")
+    private boolean resync;
+
+    @JsonProperty("changes")
+    private List<EmployeeChange> changes = new ArrayList<>();
+
+}
@@ -0,0 +1,15 @@
+package com.reliaquest.api.outbound.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+@Data
+public class ChangesResponse {
+
+    @JsonProperty("data")
+    private ChangeFeed data;
+
+    @JsonProperty("status")
+    private String status;
+
+}
@@ -0,0 +1,31 @@
+package com.reliaquest.api.outbound.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.util.Map;
+
+/*
+ * Aggregates upstream computed over one numeric column of its roster. min, max and mean are null for an empty roster.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ColumnStats {
+
+    @JsonProperty("count")
+    private int count;
+
+    @JsonProperty("min")
+    private Integer min;
+
+    @JsonProperty("max")
+    private Integer max;
+
+    @JsonProperty("mean")
+    private Double mean;
+
+    @JsonProperty("percentiles")
+    private Map<String, Integer> percentiles;
+
+}
@@ -0,0 +1,29 @@
+package com.reliaquest.api.outbound.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.reliaquest.api.service.model.Employee;
+import lombok.Data;
+
+/*
+ * A create or delete upstream. The employee is only sent for a creation.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class EmployeeChange {
+
+    public enum Type { CREATED, DELETED }
+
+    @JsonProperty("version")
+    private long version;
+
+    @JsonProperty("type")
+    private Type type;
+
+    @JsonProperty("id")
+    private String id;
+
+    @JsonProperty("employee")
+    private Employee employee;
+
+}
@@ -0,0 +1,16 @@
+package com.reliaquest.api.outbound.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.reliaquest.api.service.model.Employee;
+import lombok.Data;
+
+@Data
+public class GetResponse {
+
+    @JsonProperty("data")
+    private Employee data;
+
+    @JsonProperty("status")
+    private String status;
+
+}
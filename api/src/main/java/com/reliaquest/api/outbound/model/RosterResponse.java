@@ -0,0 +1,25 @@
+package com.reliaquest.api.outbound.model;
+
+import lombok.Value;
+
+/*
+ * Outcome of a roster request: the envelope status, ETag and upstream version of a roster that was streamed, or
+ * notModified when upstream confirmed the version the caller already holds. The ETag names one representation of the
+ * roster and is only good for revalidating it; the version names the roster itself, as the change feed knows it.
+ */
+@Value
+public class RosterResponse {
+
+    String status;
+    String etag;
+    String version;
+    boolean notModified;
+
+    public static RosterResponse loaded(String status, String etag, String version) {
+        return new RosterResponse(status, etag, version, false);
+    }
+
+    public static RosterResponse notModified(String etag) {
+        return new RosterResponse(null, etag, null, true);
+    }
+}
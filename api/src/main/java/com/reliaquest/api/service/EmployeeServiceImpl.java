@@ -3,129 +3,290 @@ package com.reliaquest.api.service;
 import com.reliaquest.api.inbound.model.RequestDto;
 import com.reliaquest.api.exception.ApiException;
 import com.reliaquest.api.outbound.EmployeeApi;
+import com.reliaquest.api.outbound.Futures;
+import com.reliaquest.api.service.cache.EmployeeLookupCache;
+import com.reliaquest.api.service.cache.EmployeeRoster;
+import com.reliaquest.api.service.cache.EmployeeRosterCache;
 import com.reliaquest.api.service.model.Employee;
-import com.reliaquest.api.service.model.EmployeeList;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
 public class EmployeeServiceImpl implements IEmployeeService {
 
+    private static final int DEFAULT_SALARY_NAMES_REQUIRED = 10;
+
     @Autowired
     private final EmployeeApi employeeApi;
-    private static final int DEFAULT_SALARY_NAMES_REQUIRED = 10;
+    private final EmployeeRosterCache rosterCache;
+    private final EmployeeLookupCache lookupCache;
+    private final boolean pushDown;
+    // Time spent answering from the roster once it is at hand, per query
+    private final Timer allQueries;
+    private final Timer searchQueries;
+    private final Timer idQueries;
+    private final Timer highestSalaryQueries;
+    private final Timer topEarnerQueries;
 
-    public EmployeeServiceImpl(EmployeeApi employeeApi) {
+    public EmployeeServiceImpl(EmployeeApi employeeApi, EmployeeRosterCache rosterCache,
+                               EmployeeLookupCache lookupCache,
+                               @Value("${employee.salary.push-down:false}") boolean pushDown,
+                               MeterRegistry meterRegistry) {
         this.employeeApi = employeeApi;
+        this.rosterCache = rosterCache;
+        this.lookupCache = lookupCache;
+        this.pushDown = pushDown;
+        this.allQueries = queryTimer(meterRegistry, "all");
+        this.searchQueries = queryTimer(meterRegistry, "search");
+        this.idQueries = queryTimer(meterRegistry, "byId");
+        this.highestSalaryQueries = queryTimer(meterRegistry, "highestSalary");
+        this.topEarnerQueries = queryTimer(meterRegistry, "topEarners");
+    }
+
+    private static Timer queryTimer(MeterRegistry meterRegistry, String query) {
+        return Timer.builder("employee.service.query")
+                .description("Compute time of roster queries, excluding any wait for the roster")
+                .tag("query", query)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
 
     @Override
     public List<Employee> getAllEmployees() throws ApiException {
-        log.info("Fetching all employees from EmployeeApi");
+        log.info("Fetching all employees from roster cache");
 
-        return getEmployeeListFromApi();
+        return getEmployeeList();
     }
     
     @Override
     public List<Employee> getEmployeesByNameSearch(String searchString) throws ApiException {
 
-        List<Employee> employeesList = getEmployeeListFromApi();
-
-        // Find the employee
-       return employeesList
-               .stream()
-               .filter(employee -> employee !=null
-                       && employee.getEmployeeName() !=null
-                       && employee.getEmployeeName().trim()
-                       .equalsIgnoreCase(searchString.trim()))
-               .toList();
+        return search(answering(rosterCache.getRoster(), StaleAnswers.forCurrentRequest()), searchString);
     }
     
     @Override
     public Employee getEmployeeById(String id) throws ApiException {
 
-        List<Employee> employeesList = getEmployeeListFromApi();
-
-        return employeesList
-                .stream()
-                .filter(employee -> Objects.equals(employee.getId(), id))
-                .findFirst()
-                .orElse(null);
+        // A fresh roster answers for free; otherwise one small point lookup (or none, if cached) beats a full download
+        EmployeeRoster roster = rosterCache.getFreshRoster();
+        if (roster != null) {
+            return findById(roster, id);
+        }
+        try {
+            return lookupCache.get(id);
+        } catch (ApiException e) {
+            EmployeeRoster fallback = rosterCache.getFallbackRoster();
+            if (fallback == null) {
+                throw e;
+            }
+            log.warn("Looking up employee {} failed ({}), answering from the last good roster", id, e.getMessage());
+            return findById(answering(fallback, StaleAnswers.forCurrentRequest()), id);
+        }
     }
 
     @Override
     public Integer getHighestSalaryOfEmployees() throws ApiException {
 
-        List<Employee> employeesList = getEmployeeListFromApi();
-        
-        return employeesList.stream()
-                //Map the salary field
-                .map(Employee::getEmployeeSalary)
-                //Using Integer comparator
-                .max(Integer::compareTo)
-                .orElse(0);
+        // Rankings need names and salaries only, so a cold cache answers them without waiting for the whole roster
+        return Futures.await(highestSalaryAsync());
     }
     
     @Override
     public List<String> getTopTenHighestEarningEmployeeNames() throws ApiException {
 
-        List<Employee> employeesList = getEmployeeListFromApi();
-        // priority queue to keep track of top 10 salaries
-        PriorityQueue<Employee> topEmployees = new PriorityQueue<>(Comparator
-                .comparing(Employee::getEmployeeSalary));
-
-        employeesList.forEach(employee -> {
-            // Add employee to the priority queue
-           topEmployees.offer(employee);
-           // If the size is greater than 10, we poll the employee with the lowest salary(head)
-           if(topEmployees.size()> DEFAULT_SALARY_NAMES_REQUIRED){
-               topEmployees.poll();
-           }
-        });
-        
-        //Reverse the list to have highest salary first due to priority queue ordering
-        return addEmployeeToListAndReverse(topEmployees);
+        // The roster keeps its top employee.salary.top-earners ranked incrementally; ten is the contract regardless
+        return Futures.await(topEarnersAsync(DEFAULT_SALARY_NAMES_REQUIRED));
+    }
+
+    @Override
+    public List<String> getTopHighestEarningEmployeeNames(int count) throws ApiException {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must not be negative");
+        }
+
+        return Futures.await(topEarnersAsync(count));
     }
 
     @Override
     public Employee createEmployee(RequestDto employeeInput) throws IOException, InterruptedException, ApiException {
-        return employeeApi.addEmployee(employeeInput);
+        Employee created = employeeApi.addEmployee(employeeInput);
+        if (created != null) {
+            rosterCache.addEmployee(created);
+            lookupCache.put(created);
+        }
+        return created;
     }
 
     @Override
     public String deleteEmployeeById(String id) throws IOException, InterruptedException, ApiException {
 
-        return employeeApi.deleteEmployeeById(id);
+        String deleted = employeeApi.deleteEmployeeById(id);
+        if (deleted != null) {
+            rosterCache.removeEmployee(id);
+            lookupCache.evict(id);
+        }
+        return deleted;
+    }
+
+    @Override
+    public CompletableFuture<List<Employee>> getAllEmployeesAsync() {
+        Consumer<Duration> stale = StaleAnswers.forCurrentRequest();
+        return rosterCache.getRosterAsync().thenApply(roster -> all(answering(roster, stale)));
+    }
+
+    @Override
+    public CompletableFuture<List<Employee>> getEmployeesByNameSearchAsync(String searchString) {
+        Consumer<Duration> stale = StaleAnswers.forCurrentRequest();
+        return rosterCache.getRosterAsync().thenApply(roster -> search(answering(roster, stale), searchString));
+    }
+
+    @Override
+    public CompletableFuture<Employee> getEmployeeByIdAsync(String id) {
+        EmployeeRoster roster = rosterCache.getFreshRoster();
+        if (roster != null) {
+            return CompletableFuture.completedFuture(findById(roster, id));
+        }
+        Consumer<Duration> stale = StaleAnswers.forCurrentRequest();
+        return lookupCache.getAsync(id).exceptionallyCompose(error -> {
+            EmployeeRoster fallback = rosterCache.getFallbackRoster();
+            if (fallback == null) {
+                return CompletableFuture.failedFuture(Futures.unwrap(error));
+            }
+            log.warn("Looking up employee {} failed ({}), answering from the last good roster",
+                    id, Futures.unwrap(error).getMessage());
+            return CompletableFuture.completedFuture(findById(answering(fallback, stale), id));
+        });
+    }
+
+    @Override
+    public CompletableFuture<Integer> getHighestSalaryOfEmployeesAsync() {
+        return highestSalaryAsync();
+    }
+
+    @Override
+    public CompletableFuture<List<String>> getTopTenHighestEarningEmployeeNamesAsync() {
+        return topEarnersAsync(DEFAULT_SALARY_NAMES_REQUIRED);
+    }
+
+    @Override
+    public CompletableFuture<Employee> createEmployeeAsync(RequestDto employeeInput) {
+        return employeeApi.addEmployeeAsync(employeeInput).thenApply(created -> {
+            if (created != null) {
+                rosterCache.addEmployee(created);
+                lookupCache.put(created);
+            }
+            return created;
+        });
     }
 
-    private List<Employee> getEmployeeListFromApi() throws ApiException {
-        EmployeeList employees = employeeApi.getAllEmployees();
+    @Override
+    public CompletableFuture<String> deleteEmployeeByIdAsync(String id) {
+        return employeeApi.deleteEmployeeByIdAsync(id).thenApply(deleted -> {
+            if (deleted != null) {
+                rosterCache.removeEmployee(id);
+                lookupCache.evict(id);
+            }
+            return deleted;
+        });
+    }
 
-        if(employees == null || employees.getData() == null){
-            log.warn("No employees found in EmployeeApi");
-            return Collections.emptyList();
+    /*
+     * With employee.salary.push-down, a roster that is not fresh is not waited for: upstream computes the answer from
+     * its own columns and sends just that. A fresh roster still answers locally, and a failed push-down falls back to
+     * ranking a roster.
+     */
+    private CompletableFuture<Integer> highestSalaryAsync() {
+        Consumer<Duration> stale = StaleAnswers.forCurrentRequest();
+        if (pushDown && rosterCache.getFreshRoster() == null) {
+            return employeeApi.getSalaryStatsAsync()
+                    .thenApply(stats -> stats == null || stats.getMax() == null ? 0 : stats.getMax())
+                    .exceptionallyCompose(error -> {
+                        log.debug("Pushing down the highest salary failed ({}), ranking the roster",
+                                Futures.unwrap(error).getMessage());
+                        return rosterCache.getRankingRosterAsync()
+                                .thenApply(roster -> highestSalary(answering(roster, stale)));
+                    });
         }
+        return rosterCache.getRankingRosterAsync().thenApply(roster -> highestSalary(answering(roster, stale)));
+    }
+
+    private CompletableFuture<List<String>> topEarnersAsync(int count) {
+        Consumer<Duration> stale = StaleAnswers.forCurrentRequest();
+        if (pushDown && count != 0 && rosterCache.getFreshRoster() == null) {
+            return employeeApi.getTopEarnersAsync(count)
+                    .thenApply(ranked -> ranked == null ? List.<String>of()
+                            : ranked.stream().map(Employee::getEmployeeName).toList())
+                    .exceptionallyCompose(error -> {
+                        log.debug("Pushing down the top earners failed ({}), ranking the roster",
+                                Futures.unwrap(error).getMessage());
+                        return rosterCache.getRankingRosterAsync()
+                                .thenApply(roster -> topEarners(answering(roster, stale), count));
+                    });
+        }
+        return rosterCache.getRankingRosterAsync().thenApply(roster -> topEarners(answering(roster, stale), count));
+    }
 
-        return employees.getData();
+    private List<Employee> getEmployeeList() throws ApiException {
+        return all(answering(rosterCache.getRoster(), StaleAnswers.forCurrentRequest()));
     }
 
-    private List<String> addEmployeeToListAndReverse(PriorityQueue<Employee> topEmployees) {
-        
-        List<String> topSalaryNames = new ArrayList<>();
-        //Add employees names to the list
-        while (!topEmployees.isEmpty()){
-            topSalaryNames.add(topEmployees.poll().getEmployeeName());
+    /*
+     * Passes the roster through, first marking the request if the roster is standing in for a failing upstream.
+     */
+    private EmployeeRoster answering(EmployeeRoster roster, Consumer<Duration> stale) {
+        Duration staleness = rosterCache.getStaleness(roster);
+        if (staleness != null) {
+            stale.accept(staleness);
         }
-        //Utilize Collections to reverse the list :)
-        Collections.reverse(topSalaryNames);
+        return roster;
+    }
+
+    private List<Employee> all(EmployeeRoster roster) {
+        long started = System.nanoTime();
+        List<Employee> employees = roster.getEmployees();
+        allQueries.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return employees;
+    }
+
+    private List<Employee> search(EmployeeRoster roster, String searchString) {
+        long started = System.nanoTime();
+        List<Employee> employees = roster.findByName(searchString);
+        searchQueries.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return employees;
+    }
+
+    private Employee findById(EmployeeRoster roster, String id) {
+        long started = System.nanoTime();
+        Employee employee = roster.findById(id);
+        idQueries.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return employee;
+    }
+
+    private Integer highestSalary(EmployeeRoster roster) {
+        long started = System.nanoTime();
+        Integer salary = roster.getHighestSalary();
+        highestSalaryQueries.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return salary;
+    }
 
-        return topSalaryNames;
+    private List<String> topEarners(EmployeeRoster roster, int count) {
+        long started = System.nanoTime();
+        List<String> names = roster.getTopEarnerNames(count);
+        topEarnerQueries.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return names;
     }
 
 }
@@ -6,6 +6,7 @@ import com.reliaquest.api.service.model.Employee;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface IEmployeeService {
 
@@ -14,8 +15,18 @@ public interface IEmployeeService {
     Employee getEmployeeById(String id) throws ApiException;
     Integer getHighestSalaryOfEmployees() throws ApiException;
     List<String> getTopTenHighestEarningEmployeeNames() throws ApiException;
+    List<String> getTopHighestEarningEmployeeNames(int count) throws ApiException;
     Employee createEmployee(RequestDto employeeInput) throws IOException, InterruptedException, ApiException;
     String deleteEmployeeById(String id) throws IOException, InterruptedException, ApiException;
 
+    // Non-blocking variants; failures complete the future with ApiException
+    CompletableFuture<List<Employee>> getAllEmployeesAsync();
+    CompletableFuture<List<Employee>> getEmployeesByNameSearchAsync(String searchString);
+    CompletableFuture<Employee> getEmployeeByIdAsync(String id);
+    CompletableFuture<Integer> getHighestSalaryOfEmployeesAsync();
+    CompletableFuture<List<String>> getTopTenHighestEarningEmployeeNamesAsync();
+    CompletableFuture<Employee> createEmployeeAsync(RequestDto employeeInput);
+    CompletableFuture<String> deleteEmployeeByIdAsync(String id);
+
 
 }
@@ -0,0 +1,51 @@
+package com.reliaquest.api.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/*
+ * Carries, per request, how old the roster was that an answer came from when that roster stood in for a failing
+ * upstream. The marker is bound to the request on the thread that handles it, so an asynchronous answer completing
+ * on another thread still marks its own request and no other.
+ *
+ * The response is marked right where the roster is picked, before anything is written: Age carries how old that
+ * roster is and X-Served-Stale flags the response, so clients can tell degraded answers from fresh ones whatever
+ * form the answer takes, streamed, empty or asynchronous.
+ */
+public final class StaleAnswers {
+
+    // Request attribute holding the Duration the answer was stale by
+    public static final String STALENESS = StaleAnswers.class.getName() + ".staleness";
+
+    public static final String SERVED_STALE = "X-Served-Stale";
+
+    private static final Consumer<Duration> NONE = staleness -> { };
+
+    private StaleAnswers() {
+    }
+
+    /*
+     * Records staleness on the current request and its response; does nothing outside one.
+     */
+    static Consumer<Duration> forCurrentRequest() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            // The request itself, not its attributes holder: that one stops taking writes once an async handler returns
+            HttpServletRequest request = attributes.getRequest();
+            HttpServletResponse response = attributes.getResponse();
+            return staleness -> {
+                request.setAttribute(STALENESS, staleness);
+                if (response != null && !response.isCommitted()) {
+                    response.setHeader(HttpHeaders.AGE, String.valueOf(staleness.toSeconds()));
+                    response.setHeader(SERVED_STALE, "true");
+                }
+            };
+        }
+        return NONE;
+    }
+}
@@ -0,0 +1,149 @@
+package com.reliaquest.api.service.cache;
+
+import com.reliaquest.api.exception.ApiException;
+import com.reliaquest.api.outbound.EmployeeApi;
+import com.reliaquest.api.outbound.Futures;
+import com.reliaquest.api.service.model.Employee;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Bounded per-id cache in front of the upstream point lookup, for single-employee reads that the roster cannot
+ * answer.
+ *
+ * Hits expire after the ttl; ids upstream does not know are remembered for the (shorter) negative ttl, so repeated
+ * misses do not turn into repeated requests. Least recently used entries are evicted beyond max-entries. Local
+ * writes update the cache directly, and a lookup that raced with a write does not overwrite what the write stored.
+ */
+@Slf4j
+@Component
+public class EmployeeLookupCache {
+
+    private final EmployeeApi employeeApi;
+    private final Duration ttl;
+    private final Duration negativeTtl;
+    private final int maxEntries;
+
+    // Access-ordered, guarded by itself
+    private final LinkedHashMap<String, Entry> entries;
+    private final AtomicLong writes = new AtomicLong();
+    private final Counter hits;
+    private final Counter negativeHits;
+    private final Counter misses;
+
+    public EmployeeLookupCache(EmployeeApi employeeApi,
+                               @Value("${employee.lookup.ttl:30s}") Duration ttl,
+                               @Value("${employee.lookup.negative-ttl:5s}") Duration negativeTtl,
+                               @Value("${employee.lookup.max-entries:1000}") int maxEntries,
+                               MeterRegistry meterRegistry) {
+        if (ttl.isNegative() || negativeTtl.isNegative()) {
+            throw new IllegalArgumentException("employee.lookup ttls must not be negative");
+        }
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("employee.lookup.max-entries must be positive");
+        }
+        this.employeeApi = employeeApi;
+        this.ttl = ttl;
+        this.negativeTtl = negativeTtl;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > EmployeeLookupCache.this.maxEntries;
+            }
+        };
+        Gauge.builder("employee.lookup.size", this, EmployeeLookupCache::size)
+                .description("Entries in the per-id lookup cache, negative ones included")
+                .register(meterRegistry);
+        this.hits = lookupCounter(meterRegistry, "hit");
+        this.negativeHits = lookupCounter(meterRegistry, "negative_hit");
+        this.misses = lookupCounter(meterRegistry, "miss");
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("employee.lookup.requests")
+                .description("Per-id lookups by cache result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    public Employee get(String id) throws ApiException {
+        return Futures.await(getAsync(id));
+    }
+
+    /*
+     * The cached employee, or null for a cached miss; otherwise asks upstream (coalesced per id) and caches the answer.
+     */
+    public CompletableFuture<Employee> getAsync(String id) {
+        Entry cached = lookup(id);
+        if (cached != null) {
+            (cached.employee() != null ? hits : negativeHits).increment();
+            return CompletableFuture.completedFuture(cached.employee());
+        }
+        misses.increment();
+
+        long writesBefore = writes.get();
+        return employeeApi.getEmployeeByIdAsync(id).thenApply(employee -> {
+            store(id, employee, writesBefore);
+            return employee;
+        });
+    }
+
+    public void put(Employee employee) {
+        writes.incrementAndGet();
+        store(employee.getId(), employee, -1);
+    }
+
+    public void evict(String id) {
+        writes.incrementAndGet();
+        store(id, null, -1);
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private Entry lookup(String id) {
+        synchronized (entries) {
+            Entry entry = entries.get(id);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAtNanos() - System.nanoTime() <= 0) {
+                entries.remove(id);
+                return null;
+            }
+            return entry;
+        }
+    }
+
+    /*
+     * Stores the answer for the id; a null employee is a negative entry. A fetched answer is dropped when a local write
+     * happened since the fetch started (writesBefore >= 0), since it may predate that write.
+     */
+    private void store(String id, Employee employee, long writesBefore) {
+        long expiresAt = System.nanoTime() + (employee != null ? ttl : negativeTtl).toNanos();
+        synchronized (entries) {
+            if (writesBefore >= 0 && writes.get() != writesBefore) {
+                log.debug("Dropping lookup of employee {} that raced with a local write", id);
+                return;
+            }
+            entries.put(id, new Entry(employee, expiresAt));
+        }
+    }
+
+    private record Entry(Employee employee, long expiresAtNanos) {
+    }
+}
@@ -0,0 +1,308 @@
+package com.reliaquest.api.service.cache;
+
+import com.reliaquest.api.service.model.Employee;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
+
+/*
+ * In-memory copy of the upstream roster. A full load always produces a new roster, local writes are applied
+ * in place and bump the version, so two reads with the same version saw the same data.
+ *
+ * The id and name indexes are built once when the roster is loaded and kept up to date by local writes, so lookups
+ * are a single hash probe. Readers never lock; writers are serialized on the roster itself.
+ *
+ * Salaries are kept in a sorted set, updated in O(log n) by local writes. The highest earners up to the ranking size
+ * are materialized after every write that can change them, so the highest salary and the top earners are plain
+ * field reads; deeper rankings walk the sorted set and never sort.
+ *
+ * The upstream version of a loaded roster lets the next load sync it from the change feed, and its ETag lets upstream
+ * revalidate it, instead of fetching it again. Local writes leave both as they are: they went through upstream, which
+ * has moved on by then.
+ */
+public class EmployeeRoster {
+
+    // Null-safe on its own rather than relying on every path into the set having dropped employees without an id
+    private static final Comparator<Employee> BY_SALARY_DESCENDING = Comparator
+            .comparingInt(Employee::getEmployeeSalary)
+            .reversed()
+            .thenComparing(Employee::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private volatile String etag;
+    private volatile String upstreamVersion;
+    private volatile long loadedAtNanos;
+    private volatile boolean servedStale;
+    private final Map<String, Employee> ordered;
+    private final Map<String, Employee> byId;
+    private final Map<String, List<Employee>> byName;
+    private final NavigableSet<Employee> bySalary = new ConcurrentSkipListSet<>(BY_SALARY_DESCENDING);
+    private final int rankingSize;
+    private volatile long version;
+    private volatile List<Employee> view;
+    private volatile List<Employee> topEarners;
+    private volatile List<String> topEarnerNames;
+
+    public EmployeeRoster(long version, List<Employee> employees, int rankingSize) {
+        this(version, collect(employees), rankingSize, null, null);
+    }
+
+    private EmployeeRoster(long version, Map<String, Employee> ordered, int rankingSize, String etag,
+                           String upstreamVersion) {
+        if (rankingSize < 1) {
+            throw new IllegalArgumentException("Ranking size must be positive");
+        }
+        this.version = version;
+        this.etag = etag;
+        this.upstreamVersion = upstreamVersion;
+        this.rankingSize = rankingSize;
+        this.loadedAtNanos = System.nanoTime();
+        this.ordered = ordered;
+        this.byId = new ConcurrentHashMap<>(ordered);
+
+        Map<String, List<Employee>> names = new ConcurrentHashMap<>();
+        ordered.values().forEach(employee -> {
+            String key = nameKey(employee.getEmployeeName());
+            if (key != null) {
+                names.computeIfAbsent(key, ignored -> new ArrayList<>(1)).add(employee);
+            }
+        });
+        names.replaceAll((key, matches) -> List.copyOf(matches));
+        this.byName = names;
+        this.view = Collections.unmodifiableList(new ArrayList<>(ordered.values()));
+
+        bySalary.addAll(ordered.values());
+        rebuildRanking();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /*
+     * Collects a roster one employee at a time, so a streamed load never holds an intermediate list.
+     * Not thread-safe; hand it to one producer.
+     */
+    public static class Builder implements Consumer<Employee> {
+
+        private final Map<String, Employee> ordered = new LinkedHashMap<>();
+
+        @Override
+        public void accept(Employee employee) {
+            if (employee != null && employee.getId() != null) {
+                ordered.put(employee.getId(), employee);
+            }
+        }
+
+        public int size() {
+            return ordered.size();
+        }
+
+        public EmployeeRoster build(long version, int rankingSize) {
+            return build(version, rankingSize, null, null);
+        }
+
+        public EmployeeRoster build(long version, int rankingSize, String etag, String upstreamVersion) {
+            return new EmployeeRoster(version, ordered, rankingSize, etag, upstreamVersion);
+        }
+    }
+
+    private static Map<String, Employee> collect(List<Employee> employees) {
+        Builder builder = new Builder();
+        employees.forEach(builder);
+        return builder.ordered;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /*
+     * The upstream ETag this roster was loaded with, or null if upstream sent none.
+     */
+    public String getEtag() {
+        return etag;
+    }
+
+    /*
+     * The upstream roster version this roster holds, or null if upstream did not say.
+     */
+    public String getUpstreamVersion() {
+        return upstreamVersion;
+    }
+
+    public Duration getAge() {
+        return Duration.ofNanos(System.nanoTime() - loadedAtNanos);
+    }
+
+    /*
+     * Upstream confirmed this roster is current, so it is as good as freshly loaded.
+     */
+    void revalidated() {
+        loadedAtNanos = System.nanoTime();
+        servedStale = false;
+    }
+
+    /*
+     * The change feed brought this roster up to the given upstream version. Upstream's ETag for that version is not
+     * known until the next full load, so there is none to revalidate with until then.
+     */
+    void synced(String upstreamVersion) {
+        this.upstreamVersion = upstreamVersion;
+        this.etag = null;
+        revalidated();
+    }
+
+    /*
+     * Whether this roster is standing in for upstream after a failed load, until upstream confirms it again. A roster
+     * replaced by a newer load keeps the mark, so answers taken from it stay marked too.
+     */
+    boolean isServedStale() {
+        return servedStale;
+    }
+
+    void servedStale() {
+        servedStale = true;
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    public List<Employee> getEmployees() {
+        List<Employee> current = view;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (view == null) {
+                view = Collections.unmodifiableList(new ArrayList<>(ordered.values()));
+            }
+            return view;
+        }
+    }
+
+    public Employee findById(String id) {
+        return id == null ? null : byId.get(id);
+    }
+
+    /*
+     * Exact, case-insensitive match on the trimmed name. The returned list is shared and unmodifiable.
+     */
+    public List<Employee> findByName(String name) {
+        String key = nameKey(name);
+        return key == null ? List.of() : byName.getOrDefault(key, List.of());
+    }
+
+    public int getHighestSalary() {
+        List<Employee> ranked = topEarners;
+        return ranked.isEmpty() ? 0 : ranked.get(0).getEmployeeSalary();
+    }
+
+    /*
+     * Names of the highest earners, highest first, up to the ranking size the roster was built with.
+     */
+    public List<String> getTopEarnerNames() {
+        return topEarnerNames;
+    }
+
+    public List<String> getTopEarnerNames(int count) {
+        if (count <= rankingSize) {
+            List<String> names = topEarnerNames;
+            return names.subList(0, Math.min(count, names.size()));
+        }
+        return bySalary.stream()
+                .limit(count)
+                .map(Employee::getEmployeeName)
+                .toList();
+    }
+
+    synchronized void add(Employee employee, long newVersion) {
+        if (employee.getId() == null || ordered.containsKey(employee.getId())) {
+            return;
+        }
+        ordered.put(employee.getId(), employee);
+        byId.put(employee.getId(), employee);
+        String key = nameKey(employee.getEmployeeName());
+        if (key != null) {
+            byName.merge(key, List.of(employee), EmployeeRoster::concat);
+        }
+        bySalary.add(employee);
+        if (isRanked(employee, true)) {
+            rebuildRanking();
+        }
+        view = null;
+        version = newVersion;
+    }
+
+    synchronized void remove(String id, long newVersion) {
+        Employee removed = id == null ? null : ordered.remove(id);
+        if (removed == null) {
+            return;
+        }
+        byId.remove(id);
+        String key = nameKey(removed.getEmployeeName());
+        if (key != null) {
+            byName.computeIfPresent(key, (ignored, matches) -> without(matches, removed));
+        }
+        bySalary.remove(removed);
+        if (isRanked(removed, false)) {
+            rebuildRanking();
+        }
+        view = null;
+        version = newVersion;
+    }
+
+    /*
+     * Whether the employee sorts inside the materialized ranking. An added employee also counts while the ranking
+     * is not full yet.
+     */
+    private boolean isRanked(Employee employee, boolean added) {
+        List<Employee> ranked = topEarners;
+        if (added && ranked.size() < rankingSize) {
+            return true;
+        }
+        return !ranked.isEmpty() && BY_SALARY_DESCENDING.compare(employee, ranked.get(ranked.size() - 1)) <= 0;
+    }
+
+    private void rebuildRanking() {
+        List<Employee> ranked = bySalary.stream()
+                .limit(rankingSize)
+                .toList();
+        topEarnerNames = ranked.stream()
+                .map(Employee::getEmployeeName)
+                .toList();
+        topEarners = ranked;
+    }
+
+    static String nameKey(String name) {
+        if (name == null) {
+            return null;
+        }
+        String trimmed = name.trim();
+        return trimmed.isEmpty() ? null : trimmed.toLowerCase(Locale.ROOT);
+    }
+
+    private static List<Employee> concat(List<Employee> matches, List<Employee> added) {
+        List<Employee> merged = new ArrayList<>(matches.size() + added.size());
+        merged.addAll(matches);
+        merged.addAll(added);
+        return List.copyOf(merged);
+    }
+
+    private static List<Employee> without(List<Employee> matches, Employee removed) {
+        List<Employee> remaining = matches.stream()
+                .filter(employee -> employee != removed)
+                .toList();
+        return remaining.isEmpty() ? null : remaining;
+    }
+}
@@ -0,0 +1,535 @@
+package com.reliaquest.api.service.cache;
+
+import com.reliaquest.api.exception.ApiException;
+import com.reliaquest.api.outbound.EmployeeApi;
+import com.reliaquest.api.outbound.Futures;
+import com.reliaquest.api.outbound.SingleFlight;
+import com.reliaquest.api.outbound.model.ChangeFeed;
+import com.reliaquest.api.outbound.model.EmployeeChange;
+import com.reliaquest.api.outbound.model.RosterResponse;
+import com.reliaquest.api.service.model.Employee;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/*
+ * Read-through cache of the upstream roster.
+ *
+ * Reads never wait on upstream while the roster is younger than the TTL. Between the TTL and the staleness bound the
+ * cached roster is still served while one background refresh replaces it; past the bound a read waits for a load.
+ * A refresh is also scheduled ahead of expiry, but only if the roster has been read since it was loaded, so an idle
+ * api does not spend the upstream request budget.
+ *
+ * At most one load is in flight. Local writes that land while it is in flight are replayed onto the loaded roster
+ * before it is published, so they are not lost with the roster they were applied to.
+ *
+ * Once a roster is loaded, a refresh asks upstream for the creates and deletes since its version and applies them in
+ * place, so it costs in proportion to the rate of change rather than the size of the roster. Only when upstream no
+ * longer has all of them (or incremental-sync is off) is the roster loaded whole; that load revalidates the current
+ * roster with its ETag, and a 304 keeps it.
+ *
+ * When upstream fails (or the circuit to it is open), the last good roster keeps being served for up to
+ * stale-if-error. It is marked as served stale until a load succeeds again, and getStaleness reports that for each
+ * roster handed out, so only answers actually taken from it are reported stale.
+ */
+@Slf4j
+@Component
+public class EmployeeRosterCache {
+
+    // Upstream property names of what a salary ranking needs
+    private static final List<String> RANKING_FIELDS = List.of("id", "employee_name", "employee_salary");
+    // A roster fetched in pages that changes underneath is fetched again, up to this many times in all
+    private static final int MAX_ROSTER_FETCHES = 3;
+
+    private final EmployeeApi employeeApi;
+    private final Duration ttl;
+    private final Duration refreshAhead;
+    private final Duration maxStaleness;
+    private final Duration staleIfError;
+    private final int rankingSize;
+    private final boolean incrementalSync;
+
+    private final AtomicReference<EmployeeRoster> current = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<EmployeeRoster>> loading = new AtomicReference<>();
+    private final AtomicLong versions = new AtomicLong();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final List<Consumer<EmployeeRoster>> writesDuringLoad = new ArrayList<>();
+    // Ids of the employees deleted during the load in flight, guarded by writeLock
+    private final Set<String> deletesDuringLoad = new HashSet<>();
+    private final ScheduledExecutorService refresher;
+    private volatile boolean readSinceLoad;
+
+    // Cold rankings: one projected fetch at a time, its roster answered from for a ttl until a local write drops it
+    private final SingleFlight<String, EmployeeRoster> rankingFetches;
+    private final AtomicReference<EmployeeRoster> ranking = new AtomicReference<>();
+    // Bumped by every local write, guarded by writeLock; a projected fetch that saw one go by is not kept
+    private long rankingGeneration;
+
+    private final Counter freshReads;
+    private final Counter staleReads;
+    private final Counter missedReads;
+    private final Counter loads;
+    private final Counter failedLoads;
+    private final Counter fallbackLoads;
+    private final Counter notModifiedLoads;
+    private final Counter syncedLoads;
+    private final Counter appliedChanges;
+
+    public EmployeeRosterCache(EmployeeApi employeeApi,
+                               @Value("${employee.cache.ttl:30s}") Duration ttl,
+                               @Value("${employee.cache.refresh-ahead:5s}") Duration refreshAhead,
+                               @Value("${employee.cache.max-staleness:5m}") Duration maxStaleness,
+                               @Value("${employee.cache.stale-if-error:1h}") Duration staleIfError,
+                               @Value("${employee.salary.top-earners:10}") int rankingSize,
+                               @Value("${employee.cache.incremental-sync:true}") boolean incrementalSync,
+                               @Value("${employee.api.coalesce-wait:15s}") Duration coalesceWait,
+                               @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                               MeterRegistry meterRegistry) {
+        if (ttl.isNegative() || refreshAhead.isNegative() || refreshAhead.compareTo(ttl) > 0) {
+            throw new IllegalArgumentException("employee.cache.refresh-ahead must be between 0 and employee.cache.ttl");
+        }
+        if (maxStaleness.compareTo(ttl) < 0) {
+            throw new IllegalArgumentException(
+                    "employee.cache.max-staleness must not be shorter than employee.cache.ttl");
+        }
+        if (staleIfError.isNegative()) {
+            throw new IllegalArgumentException("employee.cache.stale-if-error must not be negative");
+        }
+        if (rankingSize < 1) {
+            throw new IllegalArgumentException("employee.salary.top-earners must be positive");
+        }
+        this.employeeApi = employeeApi;
+        this.ttl = ttl;
+        this.refreshAhead = refreshAhead;
+        this.maxStaleness = maxStaleness;
+        this.staleIfError = staleIfError;
+        this.rankingSize = rankingSize;
+        this.incrementalSync = incrementalSync;
+        this.rankingFetches = new SingleFlight<>(coalesceWait);
+        this.refresher = Executors.newSingleThreadScheduledExecutor(virtualThreads
+                ? Thread.ofVirtual().name("employee-roster-refresh").factory()
+                : Thread.ofPlatform().name("employee-roster-refresh").daemon().factory());
+
+        Gauge.builder("employee.roster.size", current, roster -> roster.get() == null ? 0 : roster.get().size())
+                .description("Employees in the cached roster")
+                .register(meterRegistry);
+        TimeGauge.builder("employee.roster.age", current, TimeUnit.NANOSECONDS,
+                        roster -> roster.get() == null ? 0 : roster.get().getAge().toNanos())
+                .description("Time since the cached roster was loaded")
+                .register(meterRegistry);
+        Gauge.builder("employee.roster.stale", this, cache -> cache.getStaleness() != null ? 1 : 0)
+                .description("1 while the last good roster is served because upstream is failing")
+                .register(meterRegistry);
+        this.freshReads = readCounter(meterRegistry, "fresh");
+        this.staleReads = readCounter(meterRegistry, "refreshing");
+        this.missedReads = readCounter(meterRegistry, "miss");
+        this.loads = loadCounter(meterRegistry, "success");
+        this.failedLoads = loadCounter(meterRegistry, "failure");
+        this.fallbackLoads = loadCounter(meterRegistry, "fallback");
+        this.notModifiedLoads = loadCounter(meterRegistry, "not_modified");
+        this.syncedLoads = loadCounter(meterRegistry, "synced");
+        this.appliedChanges = Counter.builder("employee.roster.changes")
+                .description("Upstream changes applied to the roster by incremental syncs")
+                .register(meterRegistry);
+    }
+
+    private static Counter readCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("employee.roster.reads")
+                .description("Roster reads: served within ttl, served while refreshing, or waiting for a load")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static Counter loadCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("employee.roster.loads")
+                .description("Roster loads by outcome; synced means the roster was brought up to date from the "
+                        + "change feed, not_modified that upstream revalidated it, fallback that the last good roster "
+                        + "was kept after a failure")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    public EmployeeRoster getRoster() throws ApiException {
+        return Futures.await(getRosterAsync());
+    }
+
+    public CompletableFuture<EmployeeRoster> getRosterAsync() {
+        EmployeeRoster roster = current.get();
+        if (roster == null || roster.getAge().compareTo(maxStaleness) > 0) {
+            missedReads.increment();
+            return load();
+        }
+        if (!readSinceLoad) {
+            readSinceLoad = true;
+        }
+        if (roster.getAge().compareTo(ttl) >= 0) {
+            staleReads.increment();
+            refreshInBackground();
+        } else {
+            freshReads.increment();
+        }
+        return CompletableFuture.completedFuture(roster);
+    }
+
+    /*
+     * A roster to rank salaries from. Normally the cached roster, as from getRosterAsync, which may bring it up to date
+     * from the change feed first. When only a full load could provide one and none is in flight to join, the answer
+     * comes from a roster of names and salaries alone, which upstream sends and this api parses in a fraction of the
+     * time; only should that fetch fail is the full roster loaded. Either way one request goes upstream, shared by
+     * every ranking that asks meanwhile. The projected roster serves nothing but rankings, for up to the ttl, and is
+     * dropped by a local write or a full load.
+     */
+    public CompletableFuture<EmployeeRoster> getRankingRosterAsync() {
+        EmployeeRoster roster = current.get();
+        boolean servable = roster != null && roster.getAge().compareTo(maxStaleness) <= 0;
+        boolean syncable = roster != null && incrementalSync && roster.getUpstreamVersion() != null;
+        if (servable || syncable || loading.get() != null) {
+            return getRosterAsync();
+        }
+        EmployeeRoster projected = ranking.get();
+        if (projected != null && projected.getAge().compareTo(ttl) < 0) {
+            return CompletableFuture.completedFuture(projected);
+        }
+        return rankingFetches.execute("ranking", this::fetchRanking)
+                .exceptionallyCompose(error -> {
+                    log.debug("Fetching salaries failed ({}), loading the full roster",
+                            Futures.unwrap(error).getMessage());
+                    return getRosterAsync();
+                });
+    }
+
+    private CompletableFuture<EmployeeRoster> fetchRanking() {
+        long generation;
+        writeLock.lock();
+        try {
+            generation = rankingGeneration;
+        } finally {
+            writeLock.unlock();
+        }
+        EmployeeRoster.Builder builder = EmployeeRoster.builder();
+        CompletableFuture<RosterResponse> projected;
+        try {
+            projected = employeeApi.streamEmployeesAsync(RANKING_FIELDS, builder);
+        } catch (RuntimeException e) {
+            projected = CompletableFuture.failedFuture(e);
+        }
+        return projected.thenApply(response -> {
+            EmployeeRoster fetched = builder.build(0, rankingSize);
+            writeLock.lock();
+            try {
+                if (generation == rankingGeneration) {
+                    ranking.set(fetched);
+                }
+            } finally {
+                writeLock.unlock();
+            }
+            return fetched;
+        });
+    }
+
+    /*
+     * The loaded roster if it is still within its ttl, otherwise null. Never starts a load.
+     */
+    public EmployeeRoster getFreshRoster() {
+        EmployeeRoster roster = current.get();
+        if (roster == null || roster.getAge().compareTo(ttl) >= 0) {
+            return null;
+        }
+        if (!readSinceLoad) {
+            readSinceLoad = true;
+        }
+        return roster;
+    }
+
+    /*
+     * The last good roster, if it is recent enough to stand in for upstream after a failure; otherwise null.
+     * The roster is marked as served stale from here on, until the next successful load.
+     */
+    public EmployeeRoster getFallbackRoster() {
+        EmployeeRoster roster = current.get();
+        if (roster == null || roster.getAge().compareTo(staleIfError) > 0) {
+            return null;
+        }
+        roster.servedStale();
+        return roster;
+    }
+
+    /*
+     * Age of the cached roster while it stands in for a failing upstream, or null while it is healthy.
+     */
+    public Duration getStaleness() {
+        return getStaleness(current.get());
+    }
+
+    /*
+     * Age of the given roster if it was handed out standing in for a failing upstream, or null if it is current.
+     */
+    public Duration getStaleness(EmployeeRoster roster) {
+        return roster != null && roster.isServedStale() ? roster.getAge() : null;
+    }
+
+    public void addEmployee(Employee employee) {
+        write(roster -> roster.add(employee, versions.incrementAndGet()));
+    }
+
+    public void removeEmployee(String id) {
+        writeLock.lock();
+        try {
+            write(roster -> roster.remove(id, versions.incrementAndGet()));
+            if (loading.get() != null) {
+                deletesDuringLoad.add(id);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void write(Consumer<EmployeeRoster> change) {
+        writeLock.lock();
+        try {
+            EmployeeRoster roster = current.get();
+            if (roster != null) {
+                change.accept(roster);
+            }
+            rankingGeneration++;
+            ranking.set(null);
+            if (loading.get() != null) {
+                writesDuringLoad.add(change);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /*
+     * Joins the load in flight or starts one.
+     */
+    private CompletableFuture<EmployeeRoster> load() {
+        CompletableFuture<EmployeeRoster> started = new CompletableFuture<>();
+        writeLock.lock();
+        try {
+            CompletableFuture<EmployeeRoster> inFlight = loading.get();
+            if (inFlight != null) {
+                return inFlight.copy();
+            }
+            loading.set(started);
+        } finally {
+            writeLock.unlock();
+        }
+
+        EmployeeRoster previous = current.get();
+        String since = incrementalSync && previous != null ? previous.getUpstreamVersion() : null;
+        if (since == null) {
+            fetch(previous, started, 1);
+            return started.copy();
+        }
+        CompletableFuture<ChangeFeed> changes;
+        try {
+            changes = employeeApi.getChangesAsync(since);
+        } catch (RuntimeException e) {
+            changes = CompletableFuture.failedFuture(e);
+        }
+        changes.whenComplete((feed, error) -> completing(started, () -> {
+            if (error != null || feed.isResync()) {
+                // Whatever went wrong, a full load either recovers or falls back to the last good roster
+                log.debug("Syncing employee roster since {} needs a full load: {}", since,
+                        error != null ? Futures.unwrap(error).getMessage() : "resync required");
+                fetch(previous, started, 1);
+                return;
+            }
+            sync(previous, feed, started);
+            syncedLoads.increment();
+            scheduleRefreshAhead(previous);
+            log.debug("Synced employee roster to version {} with {} changes",
+                    previous.getVersion(), feed.getChanges().size());
+            started.complete(previous);
+        }));
+        return started.copy();
+    }
+
+    /*
+     * Loads the whole roster, or revalidates the previous one if upstream still has it. A 409 means the roster changed
+     * while it was fetched in pages and the builder holds a mix of versions, so it is dropped and the fetch repeated.
+     */
+    private void fetch(EmployeeRoster previous, CompletableFuture<EmployeeRoster> started, int attempt) {
+        // The roster is built straight from the response stream, no intermediate list or body string is kept
+        EmployeeRoster.Builder builder = EmployeeRoster.builder();
+        CompletableFuture<RosterResponse> fetched;
+        try {
+            fetched = employeeApi.streamAllEmployeesAsync(previous == null ? null : previous.getEtag(), builder);
+        } catch (RuntimeException e) {
+            fetched = CompletableFuture.failedFuture(e);
+        }
+        fetched.whenComplete((response, error) -> completing(started, () -> {
+            if (error != null) {
+                ApiException failure = Futures.toApiException(error);
+                if (failure.getStatusCode() == HttpStatus.CONFLICT.value() && attempt < MAX_ROSTER_FETCHES) {
+                    log.debug("Employee roster changed while it was fetched, fetching it again");
+                    fetch(previous, started, attempt + 1);
+                    return;
+                }
+                finishLoad(started);
+                EmployeeRoster fallback = getFallbackRoster();
+                if (fallback == null) {
+                    failedLoads.increment();
+                    started.completeExceptionally(failure);
+                    return;
+                }
+                fallbackLoads.increment();
+                log.warn("Loading employee roster failed ({}), serving version {} from {} ago",
+                        failure.getMessage(), fallback.getVersion(), fallback.getAge());
+                started.complete(fallback);
+                return;
+            }
+            if (response.isNotModified() && previous != null) {
+                revalidate(previous, started);
+                notModifiedLoads.increment();
+                scheduleRefreshAhead(previous);
+                log.debug("Employee roster version {} revalidated upstream", previous.getVersion());
+                started.complete(previous);
+                return;
+            }
+            if (builder.size() == 0) {
+                log.warn("No employees found in EmployeeApi");
+            }
+            EmployeeRoster loaded = publish(builder, response, started);
+            loads.increment();
+            scheduleRefreshAhead(loaded);
+            log.debug("Loaded employee roster version {} with {} employees",
+                    loaded.getVersion(), loaded.getEmployees().size());
+            started.complete(loaded);
+        }));
+    }
+
+    private EmployeeRoster publish(EmployeeRoster.Builder builder, RosterResponse response,
+                                   CompletableFuture<EmployeeRoster> started) {
+        EmployeeRoster loaded = builder.build(versions.incrementAndGet(), rankingSize, response.getEtag(),
+                response.getVersion());
+        writeLock.lock();
+        try {
+            writesDuringLoad.forEach(change -> change.accept(loaded));
+            current.set(loaded);
+            ranking.set(null);
+            readSinceLoad = false;
+            finishLoad(started);
+            return loaded;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /*
+     * Applies the upstream changes in order. Creates and deletes this api made itself are already in the roster and
+     * are skipped by it, as are writes that landed during the sync. A feed read before a delete that landed during the
+     * sync may still list that employee as created; that creation is skipped too, or the employee would come back.
+     */
+    private void sync(EmployeeRoster roster, ChangeFeed feed, CompletableFuture<EmployeeRoster> started) {
+        writeLock.lock();
+        try {
+            for (EmployeeChange change : feed.getChanges()) {
+                if (change.getType() == EmployeeChange.Type.CREATED && change.getEmployee() != null
+                        && !deletesDuringLoad.contains(change.getEmployee().getId())) {
+                    roster.add(change.getEmployee(), versions.incrementAndGet());
+                } else if (change.getType() == EmployeeChange.Type.DELETED) {
+                    roster.remove(change.getId(), versions.incrementAndGet());
+                }
+            }
+            appliedChanges.increment(feed.getChanges().size());
+            roster.synced(feed.getVersion());
+            readSinceLoad = false;
+            finishLoad(started);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /*
+     * Writes that landed during the revalidation were applied to the roster already; there is nothing to replay.
+     */
+    private void revalidate(EmployeeRoster roster, CompletableFuture<EmployeeRoster> started) {
+        writeLock.lock();
+        try {
+            roster.revalidated();
+            readSinceLoad = false;
+            finishLoad(started);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /*
+     * Runs a callback of the load in flight. Should it throw, the load fails and is cleared, rather than leaving every
+     * read that joined it waiting on a future nothing completes.
+     */
+    private void completing(CompletableFuture<EmployeeRoster> started, Runnable callback) {
+        try {
+            callback.run();
+        } catch (Throwable e) {
+            log.warn("Loading employee roster failed unexpectedly", e);
+            finishLoad(started);
+            if (started.completeExceptionally(e)) {
+                failedLoads.increment();
+            }
+        }
+    }
+
+    private void finishLoad(CompletableFuture<EmployeeRoster> started) {
+        writeLock.lock();
+        try {
+            writesDuringLoad.clear();
+            deletesDuringLoad.clear();
+            loading.compareAndSet(started, null);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void refreshInBackground() {
+        if (loading.get() != null) {
+            return;
+        }
+        load().whenComplete((roster, error) -> {
+            if (error != null) {
+                log.warn("Background refresh of employee roster failed: {}", Futures.unwrap(error).getMessage());
+            }
+        });
+    }
+
+    private void scheduleRefreshAhead(EmployeeRoster loaded) {
+        long delayNanos = ttl.minus(refreshAhead).toNanos();
+        try {
+            refresher.schedule(() -> {
+                if (current.get() == loaded && readSinceLoad) {
+                    refreshInBackground();
+                }
+            }, delayNanos, TimeUnit.NANOSECONDS);
+        } catch (RuntimeException e) {
+            log.warn("Could not schedule employee roster refresh", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+}
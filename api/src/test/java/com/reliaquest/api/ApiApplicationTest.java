@@ -1,43 +1,91 @@
 package com.reliaquest.api;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.reliaquest.api.exception.ApiException;
+import com.reliaquest.api.exception.CircuitOpenException;
+import com.reliaquest.api.inbound.controller.EmployeeController;
 import com.reliaquest.api.inbound.model.RequestDto;
 import com.reliaquest.api.outbound.EmployeeApi;
+import com.reliaquest.api.outbound.model.ChangeFeed;
+import com.reliaquest.api.outbound.model.ColumnStats;
+import com.reliaquest.api.outbound.model.EmployeeChange;
+import com.reliaquest.api.outbound.model.RosterResponse;
 import com.reliaquest.api.service.EmployeeServiceImpl;
+import com.reliaquest.api.service.StaleAnswers;
+import com.reliaquest.api.service.cache.EmployeeLookupCache;
+import com.reliaquest.api.service.cache.EmployeeRoster;
+import com.reliaquest.api.service.cache.EmployeeRosterCache;
 import com.reliaquest.api.service.model.Employee;
 import com.reliaquest.api.service.model.EmployeeList;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
+import org.junit.jupiter.api.AfterEach;
 import org.mockito.Mock;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 @SpringBootTest
 class ApiApplicationTest {
 
 
+    private static final String SUCCESS = "Successfully processed request.";
+
     @Mock
     private EmployeeApi employeeApi;
-    @InjectMocks
+    private EmployeeRosterCache rosterCache;
+    private EmployeeLookupCache lookupCache;
+    private MeterRegistry meterRegistry;
     private EmployeeServiceImpl employeeService;
 
     @BeforeEach
     void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        rosterCache = rosterCache(10);
+        lookupCache = new EmployeeLookupCache(employeeApi, Duration.ofMinutes(1), Duration.ofSeconds(10), 100,
+                meterRegistry);
+        employeeService = service(rosterCache, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        rosterCache.shutdown();
     }
     @Test
     void testGetAllEmployees() throws ApiException {
         // Arrange
-        when(employeeApi.getAllEmployees()).thenReturn(createEmployeeList());
+        stubRoster(createEmployeeList());
         // Act
         List<Employee> result = employeeService.getAllEmployees();
         // Assert
@@ -48,7 +96,7 @@ class ApiApplicationTest {
     @Test
     void testGetEmployeesByNameSearch() throws ApiException {
         // Arrange
-        when(employeeApi.getAllEmployees()).thenReturn(createEmployeeList());
+        stubRoster(createEmployeeList());
         // Act
         List<Employee> result = employeeService.getEmployeesByNameSearch("Employee 2");
         // Assert
@@ -58,9 +106,21 @@ class ApiApplicationTest {
 
     }
     @Test
+    void testGetEmployeesByNameSearchIgnoresCaseAndWhitespace() throws ApiException {
+        // Arrange
+        stubRoster(createEmployeeList());
+        // Act
+        List<Employee> result = employeeService.getEmployeesByNameSearch("  eMPLOYEE 7 ");
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals("7", result.get(0).getId());
+        assertEquals(0, employeeService.getEmployeesByNameSearch("Employee").size());
+    }
+    @Test
     void testGetEmployeeById() throws ApiException {
         // Arrange
-        when(employeeApi.getAllEmployees()).thenReturn(createEmployeeList());
+        Employee employee = createEmployeeList().getData().get(0);
+        when(employeeApi.getEmployeeByIdAsync("0")).thenReturn(CompletableFuture.completedFuture(employee));
 
         // Act
         Employee result = employeeService.getEmployeeById("0");
@@ -68,12 +128,24 @@ class ApiApplicationTest {
         // Assert
         assertNotNull(result);
         assertEquals("Employee 0", result.getEmployeeName());
+        verify(employeeApi, never()).streamAllEmployeesAsync(any(), any());
 
     }
     @Test
+    void testGetEmployeeByIdIsServedFromFreshRoster() throws ApiException {
+        // Arrange
+        stubRoster(createEmployeeList());
+        employeeService.getAllEmployees();
+        // Act
+        Employee result = employeeService.getEmployeeById("4");
+        // Assert
+        assertEquals("Employee 4", result.getEmployeeName());
+        verify(employeeApi, never()).getEmployeeByIdAsync(any());
+    }
+    @Test
     void testGetHighestSalaryOfEmployees() throws ApiException {
         // Arrange
-        when(employeeApi.getAllEmployees()).thenReturn(createEmployeeList());
+        stubRoster(createEmployeeList());
         // Act
         Integer result = employeeService.getHighestSalaryOfEmployees();
         // Assert
@@ -82,7 +154,7 @@ class ApiApplicationTest {
     @Test
     void testGetTopTenHighestEarningEmployeeNames() throws ApiException {
         // Arrange
-        when(employeeApi.getAllEmployees()).thenReturn(createEmployeeList());
+        stubRoster(createEmployeeList());
         // Act
         List<String> result = employeeService.getTopTenHighestEarningEmployeeNames();
         // Assert
@@ -91,6 +163,42 @@ class ApiApplicationTest {
         assertEquals("Employee 10", result.get(0));
     }
     @Test
+    void testTopTenIsTenWhateverTheRankingSize() throws Exception {
+        // Arrange
+        EmployeeRosterCache smallRanking = rosterCache(3);
+        EmployeeServiceImpl service = service(smallRanking, false);
+        stubRoster(createEmployeeList());
+        try {
+            // Act
+            List<String> topTen = service.getTopTenHighestEarningEmployeeNames();
+            // Assert
+            assertEquals(10, topTen.size());
+            assertEquals("Employee 10", topTen.get(0));
+            assertEquals("Employee 1", topTen.get(9));
+        } finally {
+            smallRanking.shutdown();
+        }
+    }
+    @Test
+    void testTopEarnersFollowCreateAndDelete() throws Exception {
+        // Arrange
+        stubRoster(createEmployeeList());
+        when(employeeApi.deleteEmployeeById("10")).thenReturn("10");
+        employeeService.getAllEmployees();
+        // Act
+        employeeService.deleteEmployeeById("10");
+        List<String> topTen = employeeService.getTopTenHighestEarningEmployeeNames();
+        List<String> topThree = employeeService.getTopHighestEarningEmployeeNames(3);
+        List<String> everyone = employeeService.getTopHighestEarningEmployeeNames(50);
+        // Assert
+        assertEquals(10, topTen.size());
+        assertEquals("Employee 9", topTen.get(0));
+        assertEquals("Employee 0", topTen.get(9));
+        assertEquals(List.of("Employee 9", "Employee 8", "Employee 7"), topThree);
+        assertEquals(10, everyone.size());
+        assertEquals(100000, employeeService.getHighestSalaryOfEmployees());
+    }
+    @Test
     void testCreateEmployee_Success() throws Exception {
         // Arrange
         RequestDto requestDto = new RequestDto();
@@ -123,6 +231,495 @@ class ApiApplicationTest {
         assertNotNull(result);
         assertEquals(employeeId, result);
      }
+    @Test
+    void testReadsAreServedFromCachedRoster() throws ApiException {
+        // Arrange
+        stubRoster(createEmployeeList());
+        // Act
+        employeeService.getAllEmployees();
+        employeeService.getEmployeeById("3");
+        employeeService.getHighestSalaryOfEmployees();
+        employeeService.getTopTenHighestEarningEmployeeNames();
+        // Assert
+        verify(employeeApi, times(1)).streamAllEmployeesAsync(any(), any());
+    }
+    @Test
+    void testWritesAreAppliedToCachedRoster() throws Exception {
+        // Arrange
+        stubRoster(createEmployeeList());
+        employeeService.getAllEmployees();
+
+        RequestDto requestDto = new RequestDto();
+        requestDto.setName("Employee new");
+        Employee created = new Employee();
+        created.setId("new");
+        created.setEmployeeName("Employee new");
+        created.setEmployeeSalary(500000);
+        when(employeeApi.addEmployee(requestDto)).thenReturn(created);
+        when(employeeApi.deleteEmployeeById("0")).thenReturn("0");
+        // Act
+        employeeService.createEmployee(requestDto);
+        employeeService.deleteEmployeeById("0");
+        // Assert
+        assertEquals(500000, employeeService.getHighestSalaryOfEmployees());
+        assertNull(employeeService.getEmployeeById("0"));
+        assertEquals(11, employeeService.getAllEmployees().size());
+        verify(employeeApi, times(1)).streamAllEmployeesAsync(any(), any());
+    }
+
+    @Test
+    void testReadsFallBackToLastGoodRosterWhileUpstreamFails() throws Exception {
+        // Arrange
+        EmployeeRosterCache expiringCache = expiringCache(true);
+        EmployeeServiceImpl service = service(expiringCache, false);
+        stubRoster(createEmployeeList());
+        service.getAllEmployees();
+        doReturn(CompletableFuture.failedFuture(
+                new CircuitOpenException("Upstream unavailable, circuit open", Duration.ofSeconds(30))))
+                .when(employeeApi).streamAllEmployeesAsync(any(), any());
+        when(employeeApi.getEmployeeByIdAsync("5")).thenReturn(CompletableFuture.failedFuture(
+                new CircuitOpenException("Upstream unavailable, circuit open", Duration.ofSeconds(30))));
+        assertNull(expiringCache.getStaleness());
+        try {
+            // Act
+            List<Employee> employees = service.getAllEmployees();
+            Employee employee = service.getEmployeeById("5");
+            // Assert
+            assertEquals(11, employees.size());
+            assertEquals("Employee 5", employee.getEmployeeName());
+            assertNotNull(expiringCache.getStaleness());
+        } finally {
+            expiringCache.shutdown();
+        }
+    }
+
+    @Test
+    void testOnlyAnswersFromTheStaleRosterAreMarked() throws Exception {
+        // Arrange
+        EmployeeRosterCache expiringCache = expiringCache(true);
+        EmployeeServiceImpl service = service(expiringCache, false);
+        stubRoster(createEmployeeList());
+        service.getAllEmployees();
+        doReturn(CompletableFuture.failedFuture(
+                new CircuitOpenException("Upstream unavailable, circuit open", Duration.ofSeconds(30))))
+                .when(employeeApi).streamAllEmployeesAsync(any(), any());
+        when(employeeApi.getEmployeeByIdAsync("5")).thenReturn(CompletableFuture.completedFuture(
+                createEmployeeList().getData().get(5)));
+        MockHttpServletRequest lookup = new MockHttpServletRequest();
+        MockHttpServletRequest listing = new MockHttpServletRequest();
+        try {
+            // Act
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(lookup));
+            service.getEmployeeByIdAsync("5").get();
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(listing));
+            service.getAllEmployeesAsync().get();
+            // Assert
+            assertNull(lookup.getAttribute(StaleAnswers.STALENESS));
+            assertNotNull(listing.getAttribute(StaleAnswers.STALENESS));
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+            expiringCache.shutdown();
+        }
+    }
+
+    @Test
+    void testRosterIsRevalidatedWithItsEtag() throws Exception {
+        // Arrange
+        EmployeeRosterCache expiringCache = expiringCache(false);
+        EmployeeServiceImpl service = service(expiringCache, false);
+        when(employeeApi.streamAllEmployeesAsync(isNull(), any())).thenAnswer(invocation -> {
+            Consumer<Employee> sink = invocation.getArgument(1);
+            createEmployeeList().getData().forEach(sink);
+            return CompletableFuture.completedFuture(RosterResponse.loaded(SUCCESS, "\"v1\"", "v1"));
+        });
+        doReturn(CompletableFuture.completedFuture(RosterResponse.notModified("\"v1\"")))
+                .when(employeeApi).streamAllEmployeesAsync(eq("\"v1\""), any());
+        try {
+            // Act
+            List<Employee> loaded = service.getAllEmployees();
+            List<Employee> revalidated = service.getAllEmployees();
+            // Assert
+            assertSame(loaded, revalidated);
+            verify(employeeApi, times(1)).streamAllEmployeesAsync(eq("\"v1\""), any());
+            assertEquals(1, meterRegistry.get("employee.roster.loads").tag("outcome", "not_modified").counter()
+                    .count());
+            assertNull(expiringCache.getStaleness());
+        } finally {
+            expiringCache.shutdown();
+        }
+    }
+
+    @Test
+    void testRosterIsSyncedFromChangeFeed() throws Exception {
+        // Arrange
+        EmployeeRosterCache expiringCache = expiringCache(true);
+        EmployeeServiceImpl service = service(expiringCache, false);
+        stubRoster(createEmployeeList(), "run-1");
+        Employee created = new Employee();
+        created.setId("new");
+        created.setEmployeeName("Employee new");
+        created.setEmployeeSalary(1_000_000);
+        when(employeeApi.getChangesAsync("run-1")).thenReturn(CompletableFuture.completedFuture(
+                changeFeed("run-3", false, change(EmployeeChange.Type.CREATED, "new", created),
+                        change(EmployeeChange.Type.DELETED, "3", null))));
+        when(employeeApi.getChangesAsync("run-3"))
+                .thenReturn(CompletableFuture.completedFuture(changeFeed("run-3", false)));
+        try {
+            // Act
+            service.getAllEmployees();
+            List<Employee> synced = service.getAllEmployees();
+            Integer highestSalary = service.getHighestSalaryOfEmployees();
+            // Assert
+            assertEquals(11, synced.size());
+            assertTrue(synced.stream().anyMatch(employee -> employee.getId().equals("new")));
+            assertTrue(synced.stream().noneMatch(employee -> employee.getId().equals("3")));
+            assertEquals(1_000_000, highestSalary);
+            verify(employeeApi, times(1)).streamAllEmployeesAsync(any(), any());
+            verify(employeeApi).getChangesAsync("run-3");
+            assertEquals(2, meterRegistry.get("employee.roster.loads").tag("outcome", "synced").counter().count());
+            assertEquals(2, meterRegistry.get("employee.roster.changes").counter().count());
+        } finally {
+            expiringCache.shutdown();
+        }
+    }
+
+    @Test
+    void testChangeFeedDoesNotBringBackEmployeeDeletedDuringSync() throws Exception {
+        // Arrange
+        EmployeeRosterCache expiringCache = expiringCache(true);
+        stubRoster(createEmployeeList(), "run-1");
+        Employee created = new Employee();
+        created.setId("new");
+        created.setEmployeeName("Employee new");
+        created.setEmployeeSalary(1_000_000);
+        CompletableFuture<ChangeFeed> feed = new CompletableFuture<>();
+        when(employeeApi.getChangesAsync("run-1")).thenReturn(feed);
+        try {
+            expiringCache.getRosterAsync().get();
+            expiringCache.addEmployee(created);
+            // Act
+            CompletableFuture<EmployeeRoster> syncing = expiringCache.getRosterAsync();
+            expiringCache.removeEmployee("new");
+            // Read upstream before the delete landed there
+            feed.complete(changeFeed("run-2", false, change(EmployeeChange.Type.CREATED, "new", created)));
+            EmployeeRoster synced = syncing.get();
+            // Assert
+            assertEquals(11, synced.size());
+            assertTrue(synced.getEmployees().stream().noneMatch(employee -> employee.getId().equals("new")));
+            assertEquals(110000, synced.getHighestSalary());
+        } finally {
+            expiringCache.shutdown();
+        }
+    }
+
+    @Test
+    void testRosterIsReloadedWhenChangeFeedRequiresResync() throws Exception {
+        // Arrange
+        EmployeeRosterCache expiringCache = expiringCache(true);
+        EmployeeServiceImpl service = service(expiringCache, false);
+        stubRoster(createEmployeeList(), "run-1");
+        when(employeeApi.getChangesAsync("run-1"))
+                .thenReturn(CompletableFuture.completedFuture(changeFeed("run-9", true)));
+        try {
+            // Act
+            service.getAllEmployees();
+            List<Employee> reloaded = service.getAllEmployees();
+            // Assert
+            assertEquals(11, reloaded.size());
+            verify(employeeApi, times(2)).streamAllEmployeesAsync(any(), any());
+            assertEquals(2, meterRegistry.get("employee.roster.loads").tag("outcome", "success").counter().count());
+        } finally {
+            expiringCache.shutdown();
+        }
+    }
+
+    @Test
+    void testLoadThatThrowsFailsReadsInsteadOfLeavingThemWaiting() throws Exception {
+        // Arrange
+        EmployeeRosterCache expiringCache = expiringCache(true);
+        stubRoster(createEmployeeList(), "run-1");
+        ChangeFeed malformed = changeFeed("run-2", false);
+        malformed.setChanges(null);
+        when(employeeApi.getChangesAsync("run-1"))
+                .thenReturn(CompletableFuture.completedFuture(malformed))
+                .thenReturn(CompletableFuture.completedFuture(changeFeed("run-2", false)));
+        try {
+            expiringCache.getRosterAsync().get();
+            // Act
+            CompletableFuture<EmployeeRoster> failed = expiringCache.getRosterAsync();
+            EmployeeRoster retried = expiringCache.getRosterAsync().get(5, TimeUnit.SECONDS);
+            // Assert
+            ExecutionException error = assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(NullPointerException.class, error.getCause());
+            assertEquals(11, retried.size());
+            assertEquals(1, meterRegistry.get("employee.roster.loads").tag("outcome", "failure").counter().count());
+        } finally {
+            expiringCache.shutdown();
+        }
+    }
+
+    @Test
+    void testColdRankingsAreAnsweredFromProjectedRoster() throws Exception {
+        // Arrange
+        List<String> rankingFields = List.of("id", "employee_name", "employee_salary");
+        when(employeeApi.streamAllEmployeesAsync(any(), any())).thenReturn(new CompletableFuture<>());
+        when(employeeApi.streamEmployeesAsync(eq(rankingFields), any())).thenAnswer(invocation -> {
+            Consumer<Employee> sink = invocation.getArgument(1);
+            createEmployeeList().getData().forEach(sink);
+            return CompletableFuture.completedFuture(RosterResponse.loaded(SUCCESS, null, "run-1"));
+        });
+        // Act
+        Integer highestSalary = employeeService.getHighestSalaryOfEmployees();
+        List<String> topTen = employeeService.getTopTenHighestEarningEmployeeNamesAsync().get();
+        // Assert
+        assertEquals(110000, highestSalary);
+        assertEquals("Employee 10", topTen.get(0));
+        verify(employeeApi, never()).streamAllEmployeesAsync(any(), any());
+        verify(employeeApi, times(1)).streamEmployeesAsync(any(), any());
+    }
+
+    @Test
+    void testColdRankingsShareOneProjectedFetchUntilALocalWrite() throws Exception {
+        // Arrange
+        CompletableFuture<RosterResponse> projected = new CompletableFuture<>();
+        when(employeeApi.streamEmployeesAsync(any(), any())).thenAnswer(invocation -> {
+            Consumer<Employee> sink = invocation.getArgument(1);
+            return projected.thenApply(response -> {
+                createEmployeeList().getData().forEach(sink);
+                return response;
+            });
+        });
+        Employee created = new Employee();
+        created.setId("new");
+        created.setEmployeeName("Employee new");
+        created.setEmployeeSalary(1_000_000);
+        // Act
+        CompletableFuture<Integer> highestSalary = employeeService.getHighestSalaryOfEmployeesAsync();
+        CompletableFuture<List<String>> topTen = employeeService.getTopTenHighestEarningEmployeeNamesAsync();
+        projected.complete(RosterResponse.loaded(SUCCESS, null, "run-1"));
+        Integer cached = employeeService.getHighestSalaryOfEmployees();
+        verify(employeeApi, times(1)).streamEmployeesAsync(any(), any());
+        rosterCache.addEmployee(created);
+        Integer afterWrite = employeeService.getHighestSalaryOfEmployees();
+        // Assert
+        assertEquals(110000, highestSalary.get());
+        assertEquals("Employee 10", topTen.get().get(0));
+        assertEquals(110000, cached);
+        assertEquals(110000, afterWrite);
+        verify(employeeApi, times(2)).streamEmployeesAsync(any(), any());
+        verify(employeeApi, never()).streamAllEmployeesAsync(any(), any());
+    }
+
+    @Test
+    void testRosterChangingWhileFetchedIsFetchedAgainIntoAFreshRoster() throws Exception {
+        // Arrange
+        EmployeeList employees = createEmployeeList();
+        AtomicInteger fetches = new AtomicInteger();
+        when(employeeApi.streamAllEmployeesAsync(any(), any())).thenAnswer(invocation -> {
+            Consumer<Employee> sink = invocation.getArgument(1);
+            if (fetches.incrementAndGet() == 1) {
+                // A page of an older roster, then the conflict
+                Employee gone = new Employee();
+                gone.setId("gone");
+                gone.setEmployeeName("Employee gone");
+                sink.accept(gone);
+                return CompletableFuture.failedFuture(
+                        new ApiException("Employee roster changed while it was fetched in pages", 409));
+            }
+            employees.getData().forEach(sink);
+            return CompletableFuture.completedFuture(RosterResponse.loaded(SUCCESS, null, null));
+        });
+        // Act
+        List<Employee> result = employeeService.getAllEmployees();
+        // Assert
+        assertEquals(11, result.size());
+        assertTrue(result.stream().noneMatch(employee -> employee.getId().equals("gone")));
+        assertEquals(2, fetches.get());
+    }
+
+    @Test
+    void testColdRankingsLoadTheFullRosterOnlyWhenTheProjectionFails() throws Exception {
+        // Arrange
+        stubRoster(createEmployeeList());
+        doReturn(CompletableFuture.failedFuture(new ApiException("Failed to fetch employees", 500)))
+                .when(employeeApi).streamEmployeesAsync(any(), any());
+        // Act
+        Integer highestSalary = employeeService.getHighestSalaryOfEmployees();
+        Integer again = employeeService.getHighestSalaryOfEmployees();
+        // Assert
+        assertEquals(110000, highestSalary);
+        assertEquals(110000, again);
+        verify(employeeApi, times(1)).streamEmployeesAsync(any(), any());
+        verify(employeeApi, times(1)).streamAllEmployeesAsync(any(), any());
+    }
+
+    @Test
+    void testRosterAndQueriesAreMetered() throws ApiException {
+        // Arrange
+        stubRoster(createEmployeeList());
+        // Act
+        employeeService.getEmployeesByNameSearch("Employee 1");
+        employeeService.getEmployeesByNameSearch("Employee 2");
+        employeeService.getHighestSalaryOfEmployees();
+        // Assert
+        assertEquals(11, meterRegistry.get("employee.roster.size").gauge().value());
+        assertEquals(1, meterRegistry.get("employee.roster.loads").tag("outcome", "success").counter().count());
+        assertEquals(1, meterRegistry.get("employee.roster.reads").tag("result", "miss").counter().count());
+        assertEquals(2, meterRegistry.get("employee.roster.reads").tag("result", "fresh").counter().count());
+        assertEquals(2, meterRegistry.get("employee.service.query").tag("query", "search").timer().count());
+        assertEquals(1, meterRegistry.get("employee.service.query").tag("query", "highestSalary").timer().count());
+    }
+
+    @Test
+    void testSalaryRankingsArePushedDownWhileTheCacheIsCold() throws Exception {
+        // Arrange
+        EmployeeServiceImpl service = service(rosterCache, true);
+        ColumnStats stats = new ColumnStats();
+        stats.setMax(110000);
+        List<Employee> ranked = createEmployeeList().getData().reversed().subList(0, 10);
+        when(employeeApi.getSalaryStatsAsync()).thenReturn(CompletableFuture.completedFuture(stats));
+        when(employeeApi.getTopEarnersAsync(10)).thenReturn(CompletableFuture.completedFuture(ranked));
+        // Act
+        Integer highest = service.getHighestSalaryOfEmployees();
+        List<String> topEarners = service.getTopTenHighestEarningEmployeeNamesAsync().get();
+        // Assert
+        assertEquals(110000, highest);
+        assertEquals(10, topEarners.size());
+        assertEquals(List.of("Employee 10", "Employee 9", "Employee 8"), topEarners.subList(0, 3));
+        verify(employeeApi, never()).streamAllEmployeesAsync(any(), any());
+        verify(employeeApi, never()).streamEmployeesAsync(any(), any());
+    }
+    @Test
+    void testSalaryRankingsComeFromAFreshRosterDespitePushDown() throws Exception {
+        // Arrange
+        EmployeeServiceImpl service = service(rosterCache, true);
+        stubRoster(createEmployeeList());
+        service.getAllEmployees();
+        // Act
+        Integer highest = service.getHighestSalaryOfEmployees();
+        List<String> topThree = service.getTopHighestEarningEmployeeNames(3);
+        // Assert
+        assertEquals(110000, highest);
+        assertEquals(List.of("Employee 10", "Employee 9", "Employee 8"), topThree);
+        verify(employeeApi, never()).getSalaryStatsAsync();
+        verify(employeeApi, never()).getTopEarnersAsync(anyInt());
+    }
+    @Test
+    void testFailedPushDownFallsBackToTheRoster() throws Exception {
+        // Arrange
+        EmployeeServiceImpl service = service(rosterCache, true);
+        stubRoster(createEmployeeList());
+        when(employeeApi.getSalaryStatsAsync())
+                .thenReturn(CompletableFuture.failedFuture(new ApiException("Failed to fetch salary stats", 500)));
+        // Act
+        Integer highest = service.getHighestSalaryOfEmployees();
+        // Assert
+        assertEquals(110000, highest);
+    }
+
+    @Test
+    void testStreamAllEmployeesWritesOneJsonObjectPerLine() throws Exception {
+        // Arrange
+        stubRoster(createEmployeeList());
+        ObjectMapper objectMapper = new ObjectMapper();
+        EmployeeController controller = new EmployeeController(employeeService, objectMapper);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // Act
+        ResponseEntity<StreamingResponseBody> response = controller.streamAllEmployees();
+        response.getBody().writeTo(out);
+        // Assert
+        assertEquals("application/x-ndjson", response.getHeaders().getContentType().toString());
+        String body = out.toString(StandardCharsets.UTF_8);
+        String[] lines = body.split("\n");
+        assertTrue(body.endsWith("}\n"));
+        assertEquals(11, lines.length);
+        assertTrue(Arrays.stream(lines).allMatch(line -> line.startsWith("{") && line.endsWith("}")));
+        assertEquals("Employee 0", objectMapper.readValue(lines[0], Employee.class).getEmployeeName());
+        assertEquals("Employee 10", objectMapper.readValue(lines[10], Employee.class).getEmployeeName());
+    }
+
+    @Test
+    void testStreamedAnswerFromTheStaleRosterIsMarked() throws Exception {
+        // Arrange
+        EmployeeRosterCache expiringCache = expiringCache(false);
+        EmployeeController controller = new EmployeeController(service(expiringCache, false), new ObjectMapper());
+        stubRoster(createEmployeeList());
+        expiringCache.getRoster();
+        doReturn(CompletableFuture.failedFuture(
+                new CircuitOpenException("Upstream unavailable, circuit open", Duration.ofSeconds(30))))
+                .when(employeeApi).streamAllEmployeesAsync(any(), any());
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(
+                new ServletRequestAttributes(new MockHttpServletRequest(), servletResponse));
+        try {
+            // Act
+            ResponseEntity<StreamingResponseBody> response = controller.streamAllEmployees();
+            // Assert
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals("true", servletResponse.getHeader(StaleAnswers.SERVED_STALE));
+            assertNotNull(servletResponse.getHeader(HttpHeaders.AGE));
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+            expiringCache.shutdown();
+        }
+    }
+
+    /*
+     * A cache holding its roster for a minute, with the given ranking size.
+     */
+    private EmployeeRosterCache rosterCache(int rankingSize) {
+        return new EmployeeRosterCache(employeeApi, Duration.ofMinutes(1), Duration.ofSeconds(10),
+                Duration.ofMinutes(5), Duration.ofHours(1), rankingSize, true, Duration.ofSeconds(5), false,
+                meterRegistry);
+    }
+
+    /*
+     * A cache whose roster is due for a load on every read, and that falls back to it for an hour.
+     */
+    private EmployeeRosterCache expiringCache(boolean incrementalSync) {
+        return new EmployeeRosterCache(employeeApi, Duration.ZERO, Duration.ZERO, Duration.ZERO,
+                Duration.ofHours(1), 10, incrementalSync, Duration.ofSeconds(5), false, meterRegistry);
+    }
+
+    private EmployeeServiceImpl service(EmployeeRosterCache cache, boolean pushDown) {
+        return new EmployeeServiceImpl(employeeApi, cache, lookupCache, pushDown, meterRegistry);
+    }
+
+    private void stubRoster(EmployeeList employees) {
+        stubRoster(employees, null);
+    }
+
+    private void stubRoster(EmployeeList employees, String version) {
+        // Upstream tags each representation of the roster apart; only the version names the roster itself
+        String etag = version == null ? null : "\"" + version + "-smile\"";
+        when(employeeApi.streamAllEmployeesAsync(any(), any())).thenAnswer(invocation -> {
+            Consumer<Employee> sink = invocation.getArgument(1);
+            employees.getData().forEach(sink);
+            return CompletableFuture.completedFuture(RosterResponse.loaded(SUCCESS, etag, version));
+        });
+        // What a cold salary ranking fetches instead
+        when(employeeApi.streamEmployeesAsync(any(), any())).thenAnswer(invocation -> {
+            Consumer<Employee> sink = invocation.getArgument(1);
+            employees.getData().forEach(sink);
+            return CompletableFuture.completedFuture(RosterResponse.loaded(SUCCESS, null, version));
+        });
+    }
+
+    private static ChangeFeed changeFeed(String version, boolean resync, EmployeeChange... changes) {
+        ChangeFeed feed = new ChangeFeed();
+        feed.setVersion(version);
+        feed.setResync(resync);
+        feed.setChanges(List.of(changes));
+        return feed;
+    }
+
+    private static EmployeeChange change(EmployeeChange.Type type, String id, Employee employee) {
+        EmployeeChange change = new EmployeeChange();
+        change.setType(type);
+        change.setId(id);
+        change.setEmployee(employee);
+        return change;
+    }
 
     private EmployeeList createEmployeeList() {
 
@@ -0,0 +1,61 @@
+package com.reliaquest.api.outbound;
+
+import com.reliaquest.api.exception.RateLimitedException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveRateLimiterTest {
+
+    @Test
+    void testReadsAreShedOnceBurstIsSpent() {
+        // Arrange
+        AdaptiveRateLimiter limiter = limiter(Duration.ZERO);
+        // Act
+        assertDoesNotThrow(() -> limiter.acquire(RequestPriority.READ));
+        assertDoesNotThrow(() -> limiter.acquire(RequestPriority.READ));
+        // Assert
+        assertThrows(RateLimitedException.class, () -> limiter.acquire(RequestPriority.READ));
+    }
+
+    @Test
+    void testThrottlingClosesUpstreamForRetryAfter() {
+        // Arrange
+        AdaptiveRateLimiter limiter = limiter(Duration.ZERO);
+        // Act
+        limiter.onThrottled(Duration.ofSeconds(30));
+        RateLimitedException shed = assertThrows(RateLimitedException.class,
+                () -> limiter.acquire(RequestPriority.WRITE));
+        // Assert
+        assertTrue(shed.getRetryAfter().compareTo(Duration.ofSeconds(29)) > 0);
+    }
+
+    @Test
+    void testWritesWaitForTheNextPermit() {
+        // Arrange
+        AdaptiveRateLimiter limiter = limiter(Duration.ofMillis(300));
+        assertDoesNotThrow(() -> limiter.acquire(RequestPriority.READ));
+        assertDoesNotThrow(() -> limiter.acquire(RequestPriority.READ));
+        // Act + Assert
+        assertDoesNotThrow(() -> limiter.acquire(RequestPriority.WRITE));
+    }
+
+    @Test
+    void testRetryDelayIsBounded() {
+        // Arrange
+        AdaptiveRateLimiter limiter = limiter(Duration.ZERO);
+        // Act + Assert
+        for (int attempt = 1; attempt < 40; attempt++) {
+            assertTrue(limiter.retryDelay(attempt).compareTo(Duration.ofSeconds(90)) <= 0);
+        }
+    }
+
+    private static AdaptiveRateLimiter limiter(Duration writeMaxWait) {
+        return new AdaptiveRateLimiter(10, 0.1, 2, Duration.ofSeconds(1), Duration.ofSeconds(90),
+                Duration.ZERO, writeMaxWait);
+    }
+}
@@ -0,0 +1,79 @@
+package com.reliaquest.api.outbound;
+
+import com.reliaquest.api.exception.CircuitOpenException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+    @Test
+    void testOpensAfterConsecutiveFailures() {
+        // Arrange
+        CircuitBreaker breaker = new CircuitBreaker(3, Duration.ofMinutes(1), 1);
+        // Act
+        fail(breaker, 2);
+        breaker.onSuccess();
+        fail(breaker, 2);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        fail(breaker, 1);
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        CircuitOpenException rejected = assertThrows(CircuitOpenException.class, breaker::acquire);
+        assertTrue(rejected.getRetryAfter().compareTo(Duration.ofSeconds(59)) > 0);
+    }
+
+    @Test
+    void testHalfOpenTrialClosesCircuit() throws Exception {
+        // Arrange
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ofMillis(50), 1);
+        fail(breaker, 1);
+        Thread.sleep(80);
+        // Act
+        breaker.acquire();
+        assertThrows(CircuitOpenException.class, breaker::acquire);
+        breaker.onSuccess();
+        // Assert
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertDoesNotThrow(breaker::acquire);
+    }
+
+    @Test
+    void testFailedTrialReopensCircuit() throws Exception {
+        // Arrange
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ofMillis(50), 1);
+        fail(breaker, 1);
+        Thread.sleep(80);
+        // Act
+        breaker.acquire();
+        breaker.onFailure();
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertThrows(CircuitOpenException.class, breaker::acquire);
+    }
+
+    @Test
+    void testIgnoredTrialHandsBackItsSlot() throws Exception {
+        // Arrange
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ofMillis(50), 1);
+        fail(breaker, 1);
+        Thread.sleep(80);
+        // Act
+        breaker.acquire();
+        breaker.onIgnored();
+        // Assert
+        assertDoesNotThrow(breaker::acquire);
+    }
+
+    private static void fail(CircuitBreaker breaker, int times) {
+        for (int i = 0; i < times; i++) {
+            assertDoesNotThrow(breaker::acquire);
+            breaker.onFailure();
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.reliaquest.api.outbound;
+
+import com.reliaquest.api.exception.ApiException;
+import com.reliaquest.api.service.model.Employee;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * EmployeeApi against a stand-in for the mock server on a local port.
+ */
+class EmployeeApiTest {
+
+    private static final int EMPLOYEES = 10;
+    private static final String KNOWN_ID = "4a3a170b-22cd-4ac2-aad1-9bb5b34a1507";
+
+    private HttpServer server;
+    private final AtomicInteger rosterRequests = new AtomicInteger();
+    private final List<String> deletes = new CopyOnWriteArrayList<>();
+    // Roster version each roster request is answered with, by request number
+    private volatile Function<Integer, String> versions = request -> "v1";
+    private volatile boolean sendTotal = true;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.createContext("/api/v1/employee", exchange -> {
+            if ("DELETE".equals(exchange.getRequestMethod())) {
+                delete(exchange);
+            } else {
+                roster(exchange);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void testPagesReachTheSinkInOrder() throws Exception {
+        // Arrange
+        EmployeeApi employeeApi = employeeApi(3, 2);
+        List<String> ids = new ArrayList<>();
+        try {
+            // Act
+            employeeApi.streamAllEmployeesAsync(null, employee -> ids.add(employee.getId())).get();
+            // Assert
+            assertEquals(IntStream.range(0, EMPLOYEES).mapToObj(String::valueOf).toList(), ids);
+            assertEquals(4, rosterRequests.get());
+        } finally {
+            employeeApi.shutdown();
+        }
+    }
+
+    @Test
+    void testPagesWithoutTotalCountFail() {
+        // Arrange
+        sendTotal = false;
+        EmployeeApi employeeApi = employeeApi(3, 2);
+        try {
+            // Act
+            ExecutionException error = assertThrows(ExecutionException.class,
+                    () -> employeeApi.streamAllEmployeesAsync(null, employee -> { }).get());
+            // Assert
+            ApiException failure = assertInstanceOf(ApiException.class, Futures.unwrap(error));
+            assertEquals(502, failure.getStatusCode());
+            assertEquals(1, rosterRequests.get());
+        } finally {
+            employeeApi.shutdown();
+        }
+    }
+
+    @Test
+    void testRosterChangingBetweenPagesFailsWithConflict() {
+        // Arrange
+        versions = request -> request < 3 ? "v1" : "v2";
+        EmployeeApi employeeApi = employeeApi(3, 1);
+        List<Employee> employees = new ArrayList<>();
+        try {
+            // Act
+            ExecutionException error = assertThrows(ExecutionException.class,
+                    () -> employeeApi.streamAllEmployeesAsync(null, employees::add).get());
+            // Assert
+            ApiException failure = assertInstanceOf(ApiException.class, Futures.unwrap(error));
+            assertEquals(409, failure.getStatusCode());
+            assertEquals(6, employees.size());
+        } finally {
+            employeeApi.shutdown();
+        }
+    }
+
+    @Test
+    void testDeleteByIdAnswersTheDeletedId() throws Exception {
+        // Arrange
+        EmployeeApi employeeApi = employeeApi(3, 1);
+        try {
+            // Act
+            String deleted = employeeApi.deleteEmployeeById(KNOWN_ID);
+            // Assert
+            assertEquals(KNOWN_ID, deleted);
+            assertEquals(List.of("/api/v1/employee/" + KNOWN_ID), deletes);
+        } finally {
+            employeeApi.shutdown();
+        }
+    }
+
+    @Test
+    void testDeleteOfUnknownIdIsNotFound() throws Exception {
+        // Arrange
+        String unknown = "0d4b8b43-5cc8-4d07-9d1c-2f0d7b6c0a11";
+        EmployeeApi employeeApi = employeeApi(3, 1);
+        try {
+            // Act
+            String deleted = employeeApi.deleteEmployeeById(unknown);
+            // Assert
+            assertNull(deleted);
+            assertEquals(List.of("/api/v1/employee/" + unknown), deletes);
+        } finally {
+            employeeApi.shutdown();
+        }
+    }
+
+    @Test
+    void testDeleteOfNonUuidIdNeverReachesUpstream() throws Exception {
+        // Arrange
+        EmployeeApi employeeApi = employeeApi(3, 1);
+        try {
+            // Act
+            String deleted = employeeApi.deleteEmployeeById("not-a-uuid");
+            // Assert
+            assertNull(deleted);
+            assertTrue(deletes.isEmpty());
+        } finally {
+            employeeApi.shutdown();
+        }
+    }
+
+    private EmployeeApi employeeApi(int pageSize, int pageParallelism) {
+        return new EmployeeApi("http://localhost:" + server.getAddress().getPort() + "/api/v1",
+                Duration.ofSeconds(5), Duration.ofSeconds(5), 1, pageSize, pageParallelism, false, false,
+                new AdaptiveRateLimiter(100, 1, 100, Duration.ofSeconds(1), Duration.ofSeconds(1),
+                        Duration.ofSeconds(1), Duration.ofSeconds(1)),
+                new CircuitBreaker(5, Duration.ofSeconds(30), 1),
+                new SimpleMeterRegistry());
+    }
+
+    private void roster(HttpExchange exchange) throws IOException {
+        int request = rosterRequests.incrementAndGet();
+        Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+        int offset = Integer.parseInt(query.getOrDefault("offset", "0"));
+        int limit = Integer.parseInt(query.getOrDefault("limit", String.valueOf(EMPLOYEES)));
+        String data = IntStream.range(offset, Math.min(offset + limit, EMPLOYEES))
+                .mapToObj(i -> "{\"id\":\"" + i + "\",\"employee_name\":\"Employee " + i + "\"}")
+                .collect(Collectors.joining(",", "[", "]"));
+        byte[] body = ("{\"data\":" + data + ",\"status\":\"Successfully processed request.\"}")
+                .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.getResponseHeaders().add(EmployeeApi.ROSTER_VERSION, versions.apply(request));
+        if (sendTotal) {
+            exchange.getResponseHeaders().add(EmployeeApi.TOTAL_COUNT, String.valueOf(EMPLOYEES));
+        }
+        exchange.sendResponseHeaders(200, body.length);
+        try (var out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private void delete(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        deletes.add(path);
+        boolean known = path.endsWith("/" + KNOWN_ID);
+        byte[] body = ("{\"data\":" + known + ",\"status\":\"Successfully processed request.\"}")
+                .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(known ? 200 : 404, body.length);
+        try (var out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static Map<String, String> query(String query) {
+        Map<String, String> parameters = new ConcurrentHashMap<>();
+        if (query != null) {
+            for (String parameter : query.split("&")) {
+                String[] pair = parameter.split("=", 2);
+                parameters.put(pair[0], pair.length > 1 ? pair[1] : "");
+            }
+        }
+        return parameters;
+    }
+}
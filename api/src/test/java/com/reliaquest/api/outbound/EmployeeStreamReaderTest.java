@@ -0,0 +1,75 @@
+package com.reliaquest.api.outbound;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.reliaquest.api.service.model.Employee;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EmployeeStreamReaderTest {
+
+    private final EmployeeStreamReader reader = new EmployeeStreamReader(new ObjectMapper());
+
+    @Test
+    void testStreamsEveryEmployeeAndSkipsUnknownFields() throws Exception {
+        // Arrange
+        String body = """
+                {"meta": {"page": [1, 2]},
+                 "data": [
+                   {"id": "1", "employee_name": "Tiger Nixon", "employee_salary": 320800, "extra": {"a": 1}},
+                   null,
+                   {"id": "2", "employee_name": "Bill Bob", "employee_salary": 89750}
+                 ],
+                 "status": "Successfully processed request."}
+                """;
+        List<Employee> employees = new ArrayList<>();
+        // Act
+        String status = reader.read(stream(body), employees::add);
+        // Assert
+        assertEquals("Successfully processed request.", status);
+        assertEquals(2, employees.size());
+        assertEquals("Tiger Nixon", employees.get(0).getEmployeeName());
+        assertEquals(89750, employees.get(1).getEmployeeSalary());
+    }
+
+    @Test
+    void testStreamsSmileBody() throws Exception {
+        // Arrange
+        ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+        byte[] body = smileMapper.writeValueAsBytes(new ObjectMapper().readTree("""
+                {"data": [
+                   {"id": "1", "employee_name": "Tiger Nixon", "employee_salary": 320800},
+                   {"id": "2", "employee_name": "Bill Bob", "employee_salary": 89750}
+                 ],
+                 "status": "Successfully processed request."}
+                """));
+        List<Employee> employees = new ArrayList<>();
+        // Act
+        String status = new EmployeeStreamReader(smileMapper).read(new ByteArrayInputStream(body), employees::add);
+        // Assert
+        assertEquals("Successfully processed request.", status);
+        assertEquals(List.of("Tiger Nixon", "Bill Bob"), employees.stream().map(Employee::getEmployeeName).toList());
+        assertEquals(320800, employees.get(0).getEmployeeSalary());
+    }
+
+    @Test
+    void testTruncatedBodyFails() {
+        // Arrange
+        String body = "{\"data\": [{\"id\": \"1\"}";
+        // Act + Assert
+        assertThrows(JsonParseException.class, () -> reader.read(stream(body), employee -> { }));
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,97 @@
+package com.reliaquest.api.outbound;
+
+import com.reliaquest.api.exception.ApiException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    @Test
+    void testConcurrentCallersShareOneCall() throws Exception {
+        // Arrange
+        SingleFlight<String, Object> singleFlight = new SingleFlight<>(Duration.ofSeconds(5));
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<Object> upstream = new CompletableFuture<>();
+        Object result = new Object();
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch joined = new CountDownLatch(CALLERS);
+        List<Future<CompletableFuture<Object>>> callers = new ArrayList<>();
+        try {
+            // Act
+            for (int i = 0; i < CALLERS; i++) {
+                callers.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        return singleFlight.execute("/employee", () -> {
+                            calls.incrementAndGet();
+                            return upstream;
+                        });
+                    } finally {
+                        joined.countDown();
+                    }
+                }));
+            }
+            start.countDown();
+            assertTrue(joined.await(5, TimeUnit.SECONDS));
+            List<CompletableFuture<Object>> futures = new ArrayList<>();
+            for (Future<CompletableFuture<Object>> caller : callers) {
+                futures.add(caller.get(5, TimeUnit.SECONDS));
+            }
+            // Every caller has joined the one call before it completes
+            assertTrue(futures.stream().noneMatch(CompletableFuture::isDone));
+            upstream.complete(result);
+            // Assert
+            for (CompletableFuture<Object> future : futures) {
+                assertSame(result, Futures.await(future));
+            }
+            assertEquals(1, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testFailureIsSharedAndNotRemembered() throws Exception {
+        // Arrange
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(Duration.ofSeconds(5));
+        // Act
+        ApiException failure = assertThrows(ApiException.class, () -> Futures.await(singleFlight.execute("id",
+                () -> CompletableFuture.failedFuture(new ApiException("Failed to fetch employees", 500)))));
+        String next = Futures.await(singleFlight.execute("id", () -> CompletableFuture.completedFuture("ok")));
+        // Assert
+        assertEquals(500, failure.getStatusCode());
+        assertEquals("ok", next);
+    }
+
+    @Test
+    void testWaitingCallerTimesOut() {
+        // Arrange
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(Duration.ofMillis(50));
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+        singleFlight.execute("id", () -> upstream);
+        // Act
+        ApiException timeout = assertThrows(ApiException.class, () -> Futures.await(singleFlight.execute("id",
+                () -> CompletableFuture.completedFuture("unused"))));
+        // Assert
+        assertEquals(504, timeout.getStatusCode());
+        upstream.complete("late");
+    }
+}
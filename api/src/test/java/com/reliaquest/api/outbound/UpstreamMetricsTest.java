@@ -0,0 +1,84 @@
+package com.reliaquest.api.outbound;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Flow;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UpstreamMetricsTest {
+
+    @Test
+    void testBodyBytesAreCountedWithoutChangingTheBody() throws Exception {
+        // Arrange
+        MeterRegistry registry = new SimpleMeterRegistry();
+        UpstreamMetrics metrics = new UpstreamMetrics(registry, "roster");
+        HttpResponse.BodySubscriber<String> subscriber = metrics.counting(HttpResponse.BodyHandlers.ofString())
+                .apply(responseInfo());
+        // Act
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+        subscriber.onNext(List.of(utf8("{\"data\":"), utf8("[]}")));
+        subscriber.onNext(List.of(utf8("\n")));
+        subscriber.onComplete();
+        // Assert
+        assertEquals("{\"data\":[]}\n", subscriber.getBody().toCompletableFuture().get());
+        assertEquals(1, registry.get("employee.api.response.size").summary().count());
+        assertEquals(12, registry.get("employee.api.response.size").summary().totalAmount());
+    }
+
+    @Test
+    void testStatusCodesAreCountedPerCode() {
+        // Arrange
+        MeterRegistry registry = new SimpleMeterRegistry();
+        UpstreamMetrics metrics = new UpstreamMetrics(registry, "lookup");
+        // Act
+        metrics.recordStatus(200);
+        metrics.recordStatus(200);
+        metrics.recordStatus(429);
+        metrics.recordStatus(999);
+        // Assert
+        assertEquals(2, registry.get("employee.api.responses").tag("status", "200").counter().count());
+        assertEquals(1, registry.get("employee.api.responses").tag("status", "429").counter().count());
+        assertEquals(1, registry.get("employee.api.responses").tag("status", "unknown").counter().count());
+    }
+
+    private static ByteBuffer utf8(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static HttpResponse.ResponseInfo responseInfo() {
+        return new HttpResponse.ResponseInfo() {
+            @Override
+            public int statusCode() {
+                return 200;
+            }
+
+            @Override
+            public HttpHeaders headers() {
+                return HttpHeaders.of(Map.of(), (name, value) -> true);
+            }
+
+            @Override
+            public HttpClient.Version version() {
+                return HttpClient.Version.HTTP_1_1;
+            }
+        };
+    }
+}
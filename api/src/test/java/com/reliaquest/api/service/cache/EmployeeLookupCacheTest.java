@@ -0,0 +1,93 @@
+package com.reliaquest.api.service.cache;
+
+import com.reliaquest.api.exception.ApiException;
+import com.reliaquest.api.outbound.EmployeeApi;
+import com.reliaquest.api.service.model.Employee;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class EmployeeLookupCacheTest {
+
+    private final EmployeeApi employeeApi = mock(EmployeeApi.class);
+
+    @Test
+    void testHitsAndMissesAreCached() throws ApiException {
+        // Arrange
+        EmployeeLookupCache cache = new EmployeeLookupCache(employeeApi, Duration.ofMinutes(1), Duration.ofMinutes(1),
+                10, new SimpleMeterRegistry());
+        when(employeeApi.getEmployeeByIdAsync("1")).thenReturn(CompletableFuture.completedFuture(employee("1")));
+        when(employeeApi.getEmployeeByIdAsync("missing")).thenReturn(CompletableFuture.completedFuture(null));
+        // Act
+        for (int i = 0; i < 3; i++) {
+            assertEquals("1", cache.get("1").getId());
+            assertNull(cache.get("missing"));
+        }
+        // Assert
+        verify(employeeApi, times(1)).getEmployeeByIdAsync("1");
+        verify(employeeApi, times(1)).getEmployeeByIdAsync("missing");
+    }
+
+    @Test
+    void testExpiredMissIsAskedAgain() throws ApiException {
+        // Arrange
+        EmployeeLookupCache cache = new EmployeeLookupCache(employeeApi, Duration.ofMinutes(1), Duration.ZERO,
+                10, new SimpleMeterRegistry());
+        when(employeeApi.getEmployeeByIdAsync("missing")).thenReturn(CompletableFuture.completedFuture(null));
+        // Act
+        cache.get("missing");
+        cache.get("missing");
+        // Assert
+        verify(employeeApi, times(2)).getEmployeeByIdAsync("missing");
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntryIsEvicted() throws ApiException {
+        // Arrange
+        EmployeeLookupCache cache = new EmployeeLookupCache(employeeApi, Duration.ofMinutes(1), Duration.ofMinutes(1),
+                2, new SimpleMeterRegistry());
+        cache.put(employee("1"));
+        cache.put(employee("2"));
+        cache.get("1");
+        // Act
+        cache.put(employee("3"));
+        // Assert
+        assertEquals(2, cache.size());
+        assertEquals("1", cache.get("1").getId());
+        assertEquals("3", cache.get("3").getId());
+        verify(employeeApi, never()).getEmployeeByIdAsync(any());
+        when(employeeApi.getEmployeeByIdAsync("2")).thenReturn(CompletableFuture.completedFuture(null));
+        assertNull(cache.get("2"));
+        verify(employeeApi, times(1)).getEmployeeByIdAsync("2");
+    }
+
+    @Test
+    void testLookupThatRacedWithWriteDoesNotOverwriteIt() throws ApiException {
+        // Arrange
+        EmployeeLookupCache cache = new EmployeeLookupCache(employeeApi, Duration.ofMinutes(1), Duration.ofMinutes(1),
+                10, new SimpleMeterRegistry());
+        CompletableFuture<Employee> inFlight = new CompletableFuture<>();
+        when(employeeApi.getEmployeeByIdAsync("1")).thenReturn(inFlight);
+        CompletableFuture<Employee> lookup = cache.getAsync("1");
+        // Act
+        cache.evict("1");
+        inFlight.complete(employee("1"));
+        // Assert
+        assertEquals("1", lookup.join().getId());
+        assertNull(cache.get("1"));
+        verify(employeeApi, times(1)).getEmployeeByIdAsync("1");
+    }
+
+    private static Employee employee(String id) {
+        Employee employee = new Employee();
+        employee.setId(id);
+        return employee;
+    }
+}
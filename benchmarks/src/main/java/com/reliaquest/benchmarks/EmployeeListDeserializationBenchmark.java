@@ -0,0 +1,62 @@
+package com.reliaquest.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.outbound.EmployeeStreamReader;
+import com.reliaquest.api.service.model.Employee;
+import com.reliaquest.api.service.model.EmployeeList;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/*
+ * Reading the upstream roster payload: binding the whole EmployeeList, and streaming it with EmployeeStreamReader
+ * the way the roster cache loads it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class EmployeeListDeserializationBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    int size;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final EmployeeStreamReader streamReader = new EmployeeStreamReader(objectMapper);
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        List<Employee> employees = Rosters.employees(size);
+        EmployeeList list = new EmployeeList();
+        list.setData(employees);
+        list.setStatus("Successfully processed request.");
+        payload = objectMapper.writeValueAsBytes(list);
+    }
+
+    @Benchmark
+    public EmployeeList bindEmployeeList() throws IOException {
+        return objectMapper.readValue(payload, EmployeeList.class);
+    }
+
+    @Benchmark
+    public String streamEmployees(Blackhole blackhole) throws IOException {
+        return streamReader.read(new ByteArrayInputStream(payload), blackhole::consume);
+    }
+}
@@ -0,0 +1,103 @@
+package com.reliaquest.benchmarks;
+
+import com.reliaquest.api.exception.ApiException;
+import com.reliaquest.api.service.EmployeeServiceImpl;
+import com.reliaquest.api.service.cache.EmployeeLookupCache;
+import com.reliaquest.api.service.cache.EmployeeRosterCache;
+import com.reliaquest.api.service.model.Employee;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * The read queries of EmployeeServiceImpl over a loaded roster cache, as a controller calls them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class EmployeeQueryBenchmark {
+
+    private static final int PROBES = 1024;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    int size;
+
+    private InMemoryEmployeeApi employeeApi;
+    private EmployeeRosterCache rosterCache;
+    private EmployeeServiceImpl employeeService;
+    private String[] ids;
+    private String[] names;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ApiException {
+        List<Employee> employees = Rosters.employees(size);
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        employeeApi = new InMemoryEmployeeApi(employees, meterRegistry);
+        Duration day = Duration.ofDays(1);
+        rosterCache = new EmployeeRosterCache(
+                employeeApi, day, Duration.ZERO, day, day, 10, false, day, false, meterRegistry);
+        EmployeeLookupCache lookupCache = new EmployeeLookupCache(employeeApi, day, day, 1000, meterRegistry);
+        employeeService = new EmployeeServiceImpl(employeeApi, rosterCache, lookupCache, false, meterRegistry);
+        employeeService.getAllEmployees();
+
+        Random random = new Random(7);
+        ids = new String[PROBES];
+        names = new String[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            Employee employee = employees.get(random.nextInt(size));
+            ids[i] = employee.getId();
+            names[i] = employee.getEmployeeName();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        rosterCache.shutdown();
+        employeeApi.shutdown();
+    }
+
+    @Benchmark
+    public List<Employee> nameSearch() throws ApiException {
+        return employeeService.getEmployeesByNameSearch(names[next()]);
+    }
+
+    @Benchmark
+    public Employee idLookup() throws ApiException {
+        return employeeService.getEmployeeById(ids[next()]);
+    }
+
+    @Benchmark
+    public Integer highestSalary() throws ApiException {
+        return employeeService.getHighestSalaryOfEmployees();
+    }
+
+    @Benchmark
+    public List<String> topTenEarners() throws ApiException {
+        return employeeService.getTopTenHighestEarningEmployeeNames();
+    }
+
+    private int next() {
+        cursor = (cursor + 1) & (PROBES - 1);
+        return cursor;
+    }
+}
@@ -0,0 +1,43 @@
+package com.reliaquest.benchmarks;
+
+import com.reliaquest.api.outbound.AdaptiveRateLimiter;
+import com.reliaquest.api.outbound.CircuitBreaker;
+import com.reliaquest.api.outbound.EmployeeApi;
+import com.reliaquest.api.outbound.model.RosterResponse;
+import com.reliaquest.api.service.model.Employee;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/*
+ * EmployeeApi that serves a fixed roster from memory, so query benchmarks measure the api and not the network.
+ */
+class InMemoryEmployeeApi extends EmployeeApi {
+
+    private final List<Employee> employees;
+
+    InMemoryEmployeeApi(List<Employee> employees, MeterRegistry meterRegistry) {
+        super(
+                "http://localhost:0/api/v1",
+                Duration.ofSeconds(1),
+                Duration.ofSeconds(1),
+                1,
+                0,
+                1,
+                false,
+                false,
+                new AdaptiveRateLimiter(
+                        1, 1, 1, Duration.ofSeconds(1), Duration.ofSeconds(1), Duration.ZERO, Duration.ZERO),
+                new CircuitBreaker(1, Duration.ofSeconds(1), 1),
+                meterRegistry);
+        this.employees = employees;
+    }
+
+    @Override
+    public CompletableFuture<RosterResponse> streamAllEmployeesAsync(String ifNoneMatch, Consumer<Employee> sink) {
+        employees.forEach(sink);
+        return CompletableFuture.completedFuture(RosterResponse.loaded("Successfully processed request.", null, null));
+    }
+}
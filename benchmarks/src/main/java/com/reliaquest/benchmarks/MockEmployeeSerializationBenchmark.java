@@ -0,0 +1,64 @@
+package com.reliaquest.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.Response;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * Serializing the server's responses, with MockEmployee's PrefixNamingStrategy, into a reused buffer so only the
+ * serialization itself is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MockEmployeeSerializationBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    int size;
+
+    private final ObjectWriter writer = new ObjectMapper().writer();
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(1 << 20);
+    private Response<List<MockEmployee>> roster;
+    private Response<MockEmployee> single;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<MockEmployee> employees = Rosters.mockEmployees(size);
+        roster = Response.handledWith(employees);
+        single = Response.handledWith(employees.get(0));
+    }
+
+    @Benchmark
+    public int serializeRoster() throws IOException {
+        out.reset();
+        writer.writeValue(out, roster);
+        return out.size();
+    }
+
+    @Benchmark
+    public int serializeEmployee() throws IOException {
+        out.reset();
+        writer.writeValue(out, single);
+        return out.size();
+    }
+}
@@ -0,0 +1,69 @@
+package com.reliaquest.benchmarks;
+
+import com.reliaquest.server.web.RateLimiter;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * Checks per second of the mock server's rate limiter from four threads, all on one client (every check contends on
+ * the same state) or each on clients of its own.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class RateLimiterBenchmark {
+
+    @Param({"token-bucket", "lockout"})
+    String preset;
+
+    private RateLimiter limiter;
+
+    @Setup
+    public void setUp() {
+        limiter = "token-bucket".equals(preset)
+                ? RateLimiter.tokenBucket(1_000_000, 1_000, 10_000, System::nanoTime)
+                : RateLimiter.lockout(1_000, Duration.ofMillis(1), 10_000, System::nanoTime);
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+
+        final String[] keys = new String[64];
+
+        @Setup
+        public void setUp() {
+            final var thread = ThreadLocalRandom.current().nextInt();
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = "10.0." + thread + "." + i;
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean sharedClient() {
+        return limiter.tryAcquire("10.0.0.1").allowed();
+    }
+
+    @Benchmark
+    public boolean ownClients(Client client) {
+        return limiter.tryAcquire(client.keys[ThreadLocalRandom.current().nextInt(client.keys.length)])
+                .allowed();
+    }
+}
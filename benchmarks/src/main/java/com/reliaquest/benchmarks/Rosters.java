@@ -0,0 +1,173 @@
+package com.reliaquest.benchmarks;
+
+import com.reliaquest.api.service.model.Employee;
+import com.reliaquest.server.model.MockEmployee;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/*
+ * Deterministic synthetic rosters. Names come from small pools, so large rosters have realistic duplicate names.
+ */
+final class Rosters {
+
+    private static final String[] FIRST_NAMES = {
+        "Tiger",
+        "Garrett",
+        "Ashton",
+        "Cedric",
+        "Airi",
+        "Brielle",
+        "Herrod",
+        "Rhona",
+        "Colleen",
+        "Sonya",
+        "Jena",
+        "Quinn",
+        "Charde",
+        "Haley",
+        "Tatyana",
+        "Michael",
+        "Paul",
+        "Gloria",
+        "Bradley",
+        "Dai",
+        "Jenette",
+        "Yuri",
+        "Caesar",
+        "Doris",
+        "Angelica",
+        "Gavin",
+        "Jennifer",
+        "Brenden",
+        "Fiona",
+        "Shou",
+        "Michelle",
+        "Suki",
+        "Prescott",
+        "Gavin",
+        "Martena",
+        "Unity",
+        "Howard",
+        "Hope",
+        "Vivian",
+        "Timothy",
+        "Jackson",
+        "Olivia",
+        "Bruno",
+        "Sakura",
+        "Thor",
+        "Finn",
+        "Serge",
+        "Zenaida",
+        "Zorita",
+        "Jennifer",
+        "Cara",
+        "Hermione",
+        "Lael",
+        "Jonas",
+        "Shad",
+        "Donna"
+    };
+    private static final String[] LAST_NAMES = {
+        "Nixon",
+        "Winters",
+        "Cox",
+        "Kelly",
+        "Satou",
+        "Williamson",
+        "Chandler",
+        "Davidson",
+        "Hurst",
+        "Frost",
+        "Gaines",
+        "Flynn",
+        "Marshall",
+        "Kennedy",
+        "Fitzpatrick",
+        "Silva",
+        "Byrd",
+        "Little",
+        "Greer",
+        "Rios",
+        "Caldwell",
+        "Berry",
+        "Vance",
+        "Wilder",
+        "Ramos",
+        "Joyce",
+        "Chang",
+        "Wagner",
+        "Green",
+        "Itou",
+        "House",
+        "Burks",
+        "Bartlett",
+        "Cortez",
+        "Mccray",
+        "Butler",
+        "Hatfield",
+        "Rivers",
+        "Bell",
+        "Mooney",
+        "Bradshaw",
+        "Liang",
+        "Nash",
+        "Yamamoto",
+        "Walton",
+        "Camacho",
+        "Baldwin",
+        "Frank",
+        "Serrano",
+        "Acosta",
+        "Stevens",
+        "Butler",
+        "Alexander",
+        "Decker",
+        "Bruce",
+        "Snider"
+    };
+    private static final String[] TITLES = {
+        "Accountant", "Integration Specialist", "Technical Author", "Javascript Developer", "Software Engineer",
+        "Office Manager", "Support Lead", "Regional Director", "Senior Marketing Designer", "Sales Assistant"
+    };
+
+    private Rosters() {}
+
+    static List<Employee> employees(int size) {
+        Random random = new Random(42);
+        List<Employee> employees = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Employee employee = new Employee();
+            employee.setId(new UUID(random.nextLong(), random.nextLong()).toString());
+            employee.setEmployeeName(name(random));
+            employee.setEmployeeSalary(random.nextInt(30_000, 500_000));
+            employee.setEmployeeAge(random.nextInt(16, 70));
+            employee.setEmployeeTitle(TITLES[random.nextInt(TITLES.length)]);
+            employee.setEmployeeEmail("user" + i + "@company.com");
+            employees.add(employee);
+        }
+        return employees;
+    }
+
+    static List<MockEmployee> mockEmployees(int size) {
+        Random random = new Random(42);
+        List<MockEmployee> employees = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            employees.add(MockEmployee.builder()
+                    .id(new UUID(random.nextLong(), random.nextLong()))
+                    .name(name(random))
+                    .salary(random.nextInt(30_000, 500_000))
+                    .age(random.nextInt(16, 70))
+                    .title(TITLES[random.nextInt(TITLES.length)])
+                    .email("user" + i + "@company.com")
+                    .build());
+        }
+        return employees;
+    }
+
+    private static String name(Random random) {
+        return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+    }
+}
@@ -0,0 +1,88 @@
+package com.reliaquest.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.reliaquest.api.outbound.EmployeeStreamReader;
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.Response;
+import com.reliaquest.server.web.EncodedRosterCache;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/*
+ * The whole roster on the wire as JSON and as Smile: encoding it with the server's mapper, and streaming it into
+ * employees with the api's reader. Payload sizes, plain and gzipped, are printed once per trial, since JMH only
+ * measures time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class WireFormatBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    int size;
+
+    @Param({"json", "smile"})
+    String format;
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(1 << 20);
+    private ObjectWriter writer;
+    private EmployeeStreamReader reader;
+    private Response<List<MockEmployee>> roster;
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        final var smile = "smile".equals(format);
+        // As configured on each side: the server copies its JSON mapper, the api builds its own
+        final var serverMapper = smile ? EncodedRosterCache.smileMapper(new ObjectMapper()) : new ObjectMapper();
+        final var apiMapper = smile ? new ObjectMapper(new SmileFactory()) : new ObjectMapper();
+        writer = serverMapper.writer();
+        reader = new EmployeeStreamReader(apiMapper);
+        roster = Response.handledWith(Rosters.mockEmployees(size));
+        payload = writer.writeValueAsBytes(roster);
+        System.out.printf(
+                "%n%s roster of %d employees: %d bytes, %d gzipped%n", format, size, payload.length, gzipped(payload));
+    }
+
+    private static int gzipped(byte[] payload) throws IOException {
+        final var compressed = new ByteArrayOutputStream(payload.length / 4);
+        try (var gzip = new GZIPOutputStream(compressed, 1 << 16)) {
+            gzip.write(payload);
+        }
+        return compressed.size();
+    }
+
+    @Benchmark
+    public int encodeRoster() throws IOException {
+        out.reset();
+        writer.writeValue(out, roster);
+        return out.size();
+    }
+
+    @Benchmark
+    public String decodeRoster(Blackhole blackhole) throws IOException {
+        return reader.read(new ByteArrayInputStream(payload), blackhole::consume);
+    }
+}
@@ -0,0 +1,112 @@
+package com.reliaquest.benchmarks.perf;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * The results a run is compared with, kept as properties: the settings the baseline was recorded with under
+ * {@code config.*}, and {@code <operation>.p95}, {@code <operation>.p99} in milliseconds and
+ * {@code <operation>.throughput} in requests per second.
+ */
+final class Baseline {
+
+    private final Properties properties;
+
+    private Baseline(Properties properties) {
+        this.properties = properties;
+    }
+
+    static Baseline load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        }
+        return new Baseline(properties);
+    }
+
+    static Baseline of(Map<String, String> config, Map<String, LatencyRecorder.Summary> summaries) {
+        Properties properties = new Properties();
+        config.forEach((key, value) -> properties.setProperty("config." + key, value));
+        summaries.forEach((operation, summary) -> {
+            properties.setProperty(operation + ".p95", format(summary.p95Millis()));
+            properties.setProperty(operation + ".p99", format(summary.p99Millis()));
+            properties.setProperty(operation + ".throughput", format(summary.throughput()));
+        });
+        return new Baseline(properties);
+    }
+
+    void store(Path file, String comment) throws IOException {
+        // Sorted, so that re-recording a baseline gives a readable diff
+        Map<String, String> sorted = new TreeMap<>();
+        properties.forEach((key, value) -> sorted.put((String) key, (String) value));
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            writer.write("# " + comment + System.lineSeparator());
+            for (Map.Entry<String, String> entry : sorted.entrySet()) {
+                writer.write(entry.getKey() + "=" + entry.getValue() + System.lineSeparator());
+            }
+        }
+    }
+
+    /**
+     * The settings this baseline was recorded with that differ from {@code config}.
+     */
+    List<String> configDifferences(Map<String, String> config) {
+        List<String> differences = new ArrayList<>();
+        config.forEach((key, value) -> {
+            String recorded = properties.getProperty("config." + key);
+            if (!value.equals(recorded)) {
+                differences.add("%s: baseline %s, this run %s".formatted(key, recorded, value));
+            }
+        });
+        return differences;
+    }
+
+    /**
+     * Latencies regress when they exceed the baseline by more than {@code tolerance} plus {@code slackMillis}, the
+     * slack keeping sub-millisecond percentiles from failing on scheduling jitter. Throughput regresses when it falls
+     * below the baseline by more than {@code tolerance}. The percentiles of an operation with fewer than
+     * {@code minSamples} successful requests are too noisy to gate on, and are only held to the {@code all} totals.
+     */
+    List<String> regressions(
+            Map<String, LatencyRecorder.Summary> summaries, double tolerance, double slackMillis, long minSamples) {
+        List<String> regressions = new ArrayList<>();
+        summaries.forEach((operation, summary) -> {
+            if (operation.equals("all") || summary.successes() >= minSamples) {
+                checkLatency(regressions, operation + ".p95", summary.p95Millis(), tolerance, slackMillis);
+                checkLatency(regressions, operation + ".p99", summary.p99Millis(), tolerance, slackMillis);
+            }
+            Double throughput = value(operation + ".throughput");
+            if (throughput != null && summary.throughput() < throughput * (1 - tolerance)) {
+                regressions.add("%s.throughput %s req/s, baseline %s req/s"
+                        .formatted(operation, format(summary.throughput()), format(throughput)));
+            }
+        });
+        return regressions;
+    }
+
+    private void checkLatency(
+            List<String> regressions, String key, double actual, double tolerance, double slackMillis) {
+        Double baseline = value(key);
+        if (baseline != null && actual > baseline * (1 + tolerance) + slackMillis) {
+            regressions.add("%s %s ms, baseline %s ms".formatted(key, format(actual), format(baseline)));
+        }
+    }
+
+    private Double value(String key) {
+        String value = properties.getProperty(key);
+        return value == null ? null : Double.valueOf(value);
+    }
+
+    static String format(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+}
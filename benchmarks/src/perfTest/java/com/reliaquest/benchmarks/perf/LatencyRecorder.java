@@ -0,0 +1,104 @@
+package com.reliaquest.benchmarks.perf;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latency histograms and outcome counts per operation. Latencies are taken from the time a request was scheduled to
+ * be sent, not from when it was sent, so a stalled api shows up in the percentiles rather than being hidden by
+ * requests that queued behind it.
+ */
+final class LatencyRecorder {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final Map<Operation, ConcurrentHistogram> histograms = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> dropped = new EnumMap<>(Operation.class);
+
+    LatencyRecorder() {
+        for (Operation operation : Operation.values()) {
+            histograms.put(operation, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+            errors.put(operation, new LongAdder());
+            dropped.put(operation, new LongAdder());
+        }
+    }
+
+    void success(Operation operation, long latencyNanos) {
+        histograms.get(operation).recordValue(Math.min(toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS));
+    }
+
+    void error(Operation operation) {
+        errors.get(operation).increment();
+    }
+
+    /**
+     * A request that was due but not sent because too many were already outstanding.
+     */
+    void dropped(Operation operation) {
+        dropped.get(operation).increment();
+    }
+
+    /**
+     * Summarises every operation that ran, followed by {@code all} over the whole run.
+     */
+    Map<String, Summary> summarise(double elapsedSeconds) {
+        Map<String, Summary> summaries = new LinkedHashMap<>();
+        Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        long totalErrors = 0;
+        long totalDropped = 0;
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = histograms.get(operation);
+            long operationErrors = errors.get(operation).sum();
+            long operationDropped = dropped.get(operation).sum();
+            if (histogram.getTotalCount() + operationErrors + operationDropped == 0) {
+                continue;
+            }
+            summaries.put(operation.key(), Summary.of(histogram, operationErrors, operationDropped, elapsedSeconds));
+            total.add(histogram);
+            totalErrors += operationErrors;
+            totalDropped += operationDropped;
+        }
+        summaries.put("all", Summary.of(total, totalErrors, totalDropped, elapsedSeconds));
+        return summaries;
+    }
+
+    private static long toMicros(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    /**
+     * Latencies in milliseconds; throughput counts successful requests per second.
+     */
+    record Summary(
+            long successes,
+            long errors,
+            long dropped,
+            double throughput,
+            double p50Millis,
+            double p95Millis,
+            double p99Millis,
+            double maxMillis) {
+
+        static Summary of(Histogram histogram, long errors, long dropped, double elapsedSeconds) {
+            return new Summary(
+                    histogram.getTotalCount(),
+                    errors,
+                    dropped,
+                    elapsedSeconds > 0 ? histogram.getTotalCount() / elapsedSeconds : 0,
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(95)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getMaxValue()));
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+    }
+}
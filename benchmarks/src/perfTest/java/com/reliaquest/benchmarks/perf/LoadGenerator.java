@@ -0,0 +1,106 @@
+package com.reliaquest.benchmarks.perf;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An open-loop load generator: requests are started on a fixed schedule at the target rate whatever the api's
+ * response times, the way independent clients would send them. A closed loop that waits for each response before
+ * sending the next would slow down with the api and under-report its latency.
+ */
+final class LoadGenerator implements AutoCloseable {
+
+    private final Workload workload;
+    private final Operation.Mix mix;
+    private final int maxOutstanding;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient client;
+
+    LoadGenerator(Workload workload, Operation.Mix mix, int maxOutstanding) {
+        this.workload = workload;
+        this.mix = mix;
+        this.maxOutstanding = maxOutstanding;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(executor)
+                .build();
+    }
+
+    /**
+     * Sends requests at {@code rate} per second for {@code warmup} and then {@code duration}, recording only those
+     * scheduled after the warmup, and waits up to {@code drainTimeout} for the last of them to complete.
+     *
+     * @return the measured window in seconds, from the end of the warmup to the last recorded completion
+     */
+    double run(double rate, Duration warmup, Duration duration, Duration drainTimeout, LatencyRecorder recorder)
+            throws InterruptedException {
+        long interval = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / rate));
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        AtomicInteger outstanding = new AtomicInteger();
+        AtomicLong lastCompletion = new AtomicLong(measureFrom);
+        SplittableRandom random = new SplittableRandom(42);
+
+        for (long sent = 0; ; sent++) {
+            long scheduled = start + sent * interval;
+            if (scheduled >= end) {
+                break;
+            }
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = mix.next(random);
+            boolean measured = scheduled >= measureFrom;
+            if (outstanding.get() >= maxOutstanding) {
+                if (measured) {
+                    recorder.dropped(operation);
+                }
+                continue;
+            }
+            outstanding.incrementAndGet();
+            client.sendAsync(workload.request(operation), workload.bodyHandler(operation))
+                    .whenComplete((response, failure) -> {
+                        long completed = System.nanoTime();
+                        outstanding.decrementAndGet();
+                        workload.completed(operation, response);
+                        if (!measured) {
+                            return;
+                        }
+                        lastCompletion.accumulateAndGet(completed, Math::max);
+                        if (failure == null && isSuccess(response.statusCode())) {
+                            recorder.success(operation, completed - scheduled);
+                        } else {
+                            recorder.error(operation);
+                        }
+                    });
+        }
+
+        long drainDeadline = System.nanoTime() + drainTimeout.toNanos();
+        while (outstanding.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        return Math.max(duration.toNanos(), lastCompletion.get() - measureFrom) / 1e9;
+    }
+
+    /**
+     * Not-found and no-content answers are correct responses for this workload; throttling and server errors are not.
+     */
+    private static boolean isSuccess(int status) {
+        return status < 400 || status == 404;
+    }
+
+    @Override
+    public void close() {
+        client.close();
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,102 @@
+package com.reliaquest.benchmarks.perf;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * The seven operations of {@code IEmployeeController}, named as they are in a {@code perfTest.mix}.
+ */
+enum Operation {
+    GET_ALL("getAll"),
+    SEARCH("search"),
+    GET_BY_ID("getById"),
+    HIGHEST_SALARY("highestSalary"),
+    TOP_TEN("topTen"),
+    CREATE("create"),
+    DELETE("delete");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    String key() {
+        return key;
+    }
+
+    static Operation of(String key) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.key.equalsIgnoreCase(key.trim()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown operation '%s', expected one of %s"
+                        .formatted(
+                                key, Arrays.stream(values()).map(Operation::key).toList())));
+    }
+
+    /**
+     * A weighted choice between operations, parsed from {@code getAll=10,search=20,...}. Operations left out of the
+     * mix are never chosen.
+     */
+    record Mix(Operation[] operations, double[] cumulative) {
+
+        static Mix parse(String spec) {
+            Map<Operation, Double> weights = new EnumMap<>(Operation.class);
+            for (String entry : spec.split(",")) {
+                String[] pair = entry.split("=");
+                if (pair.length != 2) {
+                    throw new IllegalArgumentException("Malformed mix entry '%s' in '%s'".formatted(entry, spec));
+                }
+                double weight = Double.parseDouble(pair[1].trim());
+                if (weight < 0) {
+                    throw new IllegalArgumentException("Negative weight for " + pair[0]);
+                }
+                weights.merge(of(pair[0]), weight, Double::sum);
+            }
+            weights.values().removeIf(weight -> weight == 0);
+            double total =
+                    weights.values().stream().mapToDouble(Double::doubleValue).sum();
+            if (total == 0) {
+                throw new IllegalArgumentException("The mix '%s' selects no operation".formatted(spec));
+            }
+            Operation[] operations = weights.keySet().toArray(Operation[]::new);
+            double[] cumulative = new double[operations.length];
+            double sum = 0;
+            for (int i = 0; i < operations.length; i++) {
+                sum += weights.get(operations[i]) / total;
+                cumulative[i] = sum;
+            }
+            cumulative[operations.length - 1] = 1.0;
+            return new Mix(operations, cumulative);
+        }
+
+        Operation next(RandomGenerator random) {
+            double point = random.nextDouble();
+            for (int i = 0; i < cumulative.length; i++) {
+                if (point < cumulative[i]) {
+                    return operations[i];
+                }
+            }
+            return operations[operations.length - 1];
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder spec = new StringBuilder();
+            double previous = 0;
+            for (int i = 0; i < operations.length; i++) {
+                if (i > 0) {
+                    spec.append(',');
+                }
+                spec.append(operations[i].key)
+                        .append('=')
+                        .append(String.format(Locale.ROOT, "%.3f", cumulative[i] - previous));
+                previous = cumulative[i];
+            }
+            return spec.toString();
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.reliaquest.benchmarks.perf;
+
+import com.reliaquest.api.ApiApplication;
+import com.reliaquest.server.ServerApplication;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Boots the mock server and the api in this JVM on random ports, drives the api with an open-loop mix of its seven
+ * operations and compares the latency percentiles and throughput with a recorded baseline. Exits with status 1 when
+ * they regress, which fails the {@code perfTest} Gradle task.
+ *
+ * <p>Settings are system properties, passed by Gradle from {@code -PperfTest.*}:
+ * <ul>
+ *   <li>{@code perfTest.employees}: employees the server is seeded with ({@code mock.employees.max})
+ *   <li>{@code perfTest.rate}: requests per second sent to the api
+ *   <li>{@code perfTest.warmup}, {@code perfTest.duration}: unrecorded and recorded run time, e.g. {@code 30s}
+ *   <li>{@code perfTest.mix}: relative weight of each operation, e.g. {@code getAll=10,getById=30,create=5}
+ *   <li>{@code perfTest.tolerance}: allowed regression as a fraction of the baseline
+ *   <li>{@code perfTest.slackMillis}: latency allowed on top of the tolerance
+ *   <li>{@code perfTest.minSamples}: requests an operation needs before its own percentiles are compared
+ *   <li>{@code perfTest.record}: store this run as the new baseline instead of comparing with it
+ *   <li>{@code perfTest.server.*}, {@code perfTest.api.*}: any further property of either application
+ * </ul>
+ */
+public final class PerfTest {
+
+    private static final String DEFAULT_MIX =
+            "getAll=10,search=15,getById=35,highestSalary=15,topTen=15,create=5,delete=5";
+
+    private PerfTest() {}
+
+    public static void main(String[] args) throws Exception {
+        int employees = Integer.getInteger("perfTest.employees", 1000);
+        double rate = Double.parseDouble(System.getProperty("perfTest.rate", "50"));
+        Duration warmup = duration("perfTest.warmup", "10s");
+        Duration duration = duration("perfTest.duration", "30s");
+        Operation.Mix mix = Operation.Mix.parse(System.getProperty("perfTest.mix", DEFAULT_MIX));
+        int maxOutstanding = Integer.getInteger("perfTest.maxOutstanding", 2000);
+        double tolerance = Double.parseDouble(System.getProperty("perfTest.tolerance", "0.3"));
+        double slackMillis = Double.parseDouble(System.getProperty("perfTest.slackMillis", "5"));
+        long minSamples = Long.getLong("perfTest.minSamples", 200);
+        // -PperfTest.record on its own arrives as an empty value
+        String recordProperty = System.getProperty("perfTest.record");
+        boolean record = recordProperty != null && !recordProperty.equalsIgnoreCase("false");
+        Path baselineFile = Path.of(System.getProperty("perfTest.baseline", "perf-baseline.properties"));
+        Path resultsFile = Path.of(System.getProperty("perfTest.results", "build/results/perfTest/results.properties"));
+        Map<String, String> serverProperties = prefixed("perfTest.server.");
+        Map<String, String> apiProperties = prefixed("perfTest.api.");
+
+        Map<String, String> config = new LinkedHashMap<>();
+        config.put("employees", Integer.toString(employees));
+        config.put("rate", Baseline.format(rate));
+        config.put("warmup", warmup.toString());
+        config.put("duration", duration.toString());
+        config.put("mix", mix.toString());
+        serverProperties.forEach((key, value) -> config.put("server." + key, value));
+        apiProperties.forEach((key, value) -> config.put("api." + key, value));
+
+        Map<String, LatencyRecorder.Summary> summaries;
+        try (ConfigurableApplicationContext server = start(
+                        ServerApplication.class, "perf-server", serverProperties, "mock.employees.max=" + employees);
+                ConfigurableApplicationContext api = start(
+                        ApiApplication.class,
+                        "perf-api",
+                        apiProperties,
+                        "employee.api.base-url=http://localhost:%d/api/v1".formatted(port(server)))) {
+            Workload workload = Workload.seededFrom(
+                    serverRoster(port(server)), URI.create("http://localhost:" + port(api)), Duration.ofSeconds(30));
+            System.out.printf(
+                    Locale.ROOT,
+                    "perfTest: %d employees, %s req/s, warmup %s, duration %s, mix %s%n",
+                    employees,
+                    Baseline.format(rate),
+                    warmup,
+                    duration,
+                    mix);
+
+            LatencyRecorder recorder = new LatencyRecorder();
+            double elapsedSeconds;
+            try (LoadGenerator generator = new LoadGenerator(workload, mix, maxOutstanding)) {
+                elapsedSeconds = generator.run(rate, warmup, duration, Duration.ofSeconds(30), recorder);
+            }
+            summaries = recorder.summarise(elapsedSeconds);
+        }
+
+        print(summaries);
+        Baseline current = Baseline.of(config, summaries);
+        Files.createDirectories(resultsFile.toAbsolutePath().getParent());
+        current.store(resultsFile, "perfTest results of " + Instant.now());
+
+        if (record) {
+            current.store(
+                    baselineFile, "perfTest baseline, re-record with ./gradlew :benchmarks:perfTest -PperfTest.record");
+            System.out.println("perfTest: recorded a new baseline in " + baselineFile);
+            System.exit(0);
+        }
+        if (!Files.exists(baselineFile)) {
+            System.out.println("perfTest: no baseline at " + baselineFile + ", record one with -PperfTest.record");
+            System.exit(0);
+        }
+        Baseline baseline = Baseline.load(baselineFile);
+        List<String> differences = baseline.configDifferences(config);
+        if (!differences.isEmpty()) {
+            System.out.println("perfTest: not compared, the baseline was recorded with other settings:");
+            differences.forEach(difference -> System.out.println("  " + difference));
+            System.exit(0);
+        }
+        List<String> regressions = baseline.regressions(summaries, tolerance, slackMillis, minSamples);
+        if (!regressions.isEmpty()) {
+            System.out.printf(
+                    Locale.ROOT,
+                    "perfTest: FAILED, regressed more than %.0f%% (+%s ms) past the baseline:%n",
+                    tolerance * 100,
+                    Baseline.format(slackMillis));
+            regressions.forEach(regression -> System.out.println("  " + regression));
+            System.exit(1);
+        }
+        System.out.println("perfTest: within the baseline");
+        System.exit(0);
+    }
+
+    private static ConfigurableApplicationContext start(
+            Class<?> application, String configName, Map<String, String> overrides, String... properties) {
+        List<String> all = new ArrayList<>(List.of(properties));
+        // Both applications are on this classpath, so neither may read the other's application.yml
+        all.add("spring.config.name=" + configName);
+        all.add("server.port=0");
+        overrides.forEach((key, value) -> all.add(key + "=" + value));
+        return new SpringApplicationBuilder(application)
+                .bannerMode(Banner.Mode.OFF)
+                .properties(all.toArray(String[]::new))
+                .run();
+    }
+
+    private static int port(ConfigurableApplicationContext context) {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    private static String serverRoster(int serverPort) throws Exception {
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            HttpResponse<String> response = client.send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:%d/api/v1/employee".formatted(serverPort)))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("The mock server answered " + response.statusCode());
+            }
+            return response.body();
+        }
+    }
+
+    private static void print(Map<String, LatencyRecorder.Summary> summaries) {
+        System.out.printf(
+                Locale.ROOT,
+                "%-14s %9s %7s %7s %11s %9s %9s %9s %9s%n",
+                "operation",
+                "ok",
+                "errors",
+                "dropped",
+                "req/s",
+                "p50 ms",
+                "p95 ms",
+                "p99 ms",
+                "max ms");
+        summaries.forEach((operation, summary) -> System.out.printf(
+                Locale.ROOT,
+                "%-14s %9d %7d %7d %11.1f %9.3f %9.3f %9.3f %9.3f%n",
+                operation,
+                summary.successes(),
+                summary.errors(),
+                summary.dropped(),
+                summary.throughput(),
+                summary.p50Millis(),
+                summary.p95Millis(),
+                summary.p99Millis(),
+                summary.maxMillis()));
+    }
+
+    private static Duration duration(String property, String defaultValue) {
+        return DurationStyle.detectAndParse(System.getProperty(property, defaultValue));
+    }
+
+    private static Map<String, String> prefixed(String prefix) {
+        Map<String, String> properties = new TreeMap<>();
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith(prefix))
+                .forEach(name -> properties.put(name.substring(prefix.length()), System.getProperty(name)));
+        return properties;
+    }
+}
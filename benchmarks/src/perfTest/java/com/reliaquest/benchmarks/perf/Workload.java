@@ -0,0 +1,117 @@
+package com.reliaquest.benchmarks.perf;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Builds the request of each operation against the api. Reads pick ids and names from the roster the server was seeded
+ * with; deletes remove employees created earlier in the run, so the roster stays at about its seeded size.
+ */
+final class Workload {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final URI baseUri;
+    private final Duration timeout;
+    private final List<String> ids;
+    private final List<String> nameFragments;
+    private final Queue<String> created = new ConcurrentLinkedQueue<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private Workload(URI baseUri, Duration timeout, List<String> ids, List<String> nameFragments) {
+        this.baseUri = baseUri;
+        this.timeout = timeout;
+        this.ids = ids;
+        this.nameFragments = nameFragments;
+    }
+
+    /**
+     * Reads the seeded roster from the mock server's {@code /api/v1/employee}.
+     */
+    static Workload seededFrom(String serverRoster, URI apiBaseUri, Duration timeout) throws IOException {
+        List<String> ids = new ArrayList<>();
+        List<String> nameFragments = new ArrayList<>();
+        for (JsonNode employee : MAPPER.readTree(serverRoster).path("data")) {
+            ids.add(employee.path("id").asText());
+            String name = employee.path("employee_name").asText();
+            // The first few letters of a last name match a handful of employees, like a typed search would
+            String[] parts = name.split(" ");
+            String last = parts[parts.length - 1];
+            nameFragments.add(last.substring(0, Math.min(4, last.length())));
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("The mock server was seeded with no employees");
+        }
+        return new Workload(apiBaseUri, timeout, List.copyOf(ids), List.copyOf(nameFragments));
+    }
+
+    HttpRequest request(Operation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (operation) {
+            case GET_ALL -> get("");
+            case SEARCH -> get("/search/" + nameFragments.get(random.nextInt(nameFragments.size())));
+            case GET_BY_ID -> get("/" + ids.get(random.nextInt(ids.size())));
+            case HIGHEST_SALARY -> get("/highestSalary");
+            case TOP_TEN -> get("/topTenHighestEarningEmployeeNames");
+            case CREATE -> builder("")
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            """
+                            {"name":"Perf Employee %d","salary":%d,"age":%d,"title":"Load Tester"}"""
+                                    .formatted(
+                                            sequence.incrementAndGet(),
+                                            random.nextInt(30_000, 500_000),
+                                            random.nextInt(16, 76))))
+                    .build();
+            case DELETE -> {
+                String id = created.poll();
+                // Nothing to delete yet: exercise the not-found path instead of removing a seeded employee
+                yield builder("/" + (id != null ? id : UUID.randomUUID().toString()))
+                        .DELETE()
+                        .build();
+            }
+        };
+    }
+
+    /**
+     * Only creates need their body, for the id a later delete removes.
+     */
+    HttpResponse.BodyHandler<String> bodyHandler(Operation operation) {
+        return operation == Operation.CREATE
+                ? HttpResponse.BodyHandlers.ofString()
+                : HttpResponse.BodyHandlers.replacing(null);
+    }
+
+    void completed(Operation operation, HttpResponse<String> response) {
+        if (operation == Operation.CREATE && response != null && response.statusCode() / 100 == 2) {
+            try {
+                String id = MAPPER.readTree(response.body()).path("id").asText(null);
+                if (id != null) {
+                    created.add(id);
+                }
+            } catch (IOException e) {
+                // The request is counted by its status; a body without an id only means one delete fewer
+            }
+        }
+    }
+
+    private HttpRequest get(String path) {
+        return builder(path).GET().build();
+    }
+
+    private HttpRequest.Builder builder(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUri + path)).timeout(timeout);
+    }
+}
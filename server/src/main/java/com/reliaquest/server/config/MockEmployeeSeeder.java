@@ -0,0 +1,125 @@
+package com.reliaquest.server.config;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import lombok.extern.slf4j.Slf4j;
+import net.datafaker.Faker;
+
+/*
+ * Generates the seed roster in fixed-size chunks spread over worker threads.
+ *
+ * Each worker has its own Faker over its own Random, reseeded from the roster seed and the chunk index at the start of
+ * every chunk, so a seed always generates the same roster, whatever the number of workers or the order they take the
+ * chunks in. The chunks are written straight into their slice of one pre-sized array.
+ */
+@Slf4j
+public class MockEmployeeSeeder {
+
+    static final int CHUNK_SIZE = 10_000;
+
+    private final Locale locale;
+    private final long seed;
+    private final int parallelism;
+
+    public MockEmployeeSeeder(Locale locale, long seed, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Seeding needs at least one thread");
+        }
+        this.locale = locale;
+        this.seed = seed;
+        this.parallelism = parallelism;
+    }
+
+    public List<MockEmployee> generate(int size) {
+        final long started = System.nanoTime();
+        final var employees = new MockEmployee[size];
+        final var chunks = (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        final var workers = Math.min(parallelism, chunks);
+        if (workers <= 1) {
+            new Worker(employees, new AtomicInteger()).run();
+        } else {
+            final var nextChunk = new AtomicInteger();
+            try (var executor = Executors.newFixedThreadPool(workers)) {
+                final var running = IntStream.range(0, workers)
+                        .mapToObj(ignored -> executor.submit(new Worker(employees, nextChunk)))
+                        .toList();
+                for (Future<?> worker : running) {
+                    worker.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted seeding the roster", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Seeding the roster failed", e.getCause());
+            }
+        }
+        log.info(
+                "Seeded {} employees from seed {} on {} threads in {}ms",
+                size,
+                seed,
+                Math.max(workers, 1),
+                (System.nanoTime() - started) / 1_000_000);
+        return Collections.unmodifiableList(Arrays.asList(employees));
+    }
+
+    /*
+     * Takes chunks until there are none left.
+     */
+    private class Worker implements Runnable {
+
+        private final MockEmployee[] employees;
+        private final AtomicInteger nextChunk;
+        private final Random random = new Random();
+        private final Faker faker = new Faker(locale, random);
+
+        Worker(MockEmployee[] employees, AtomicInteger nextChunk) {
+            this.employees = employees;
+            this.nextChunk = nextChunk;
+        }
+
+        @Override
+        public void run() {
+            for (int chunk = nextChunk.getAndIncrement();
+                    (long) chunk * CHUNK_SIZE < employees.length;
+                    chunk = nextChunk.getAndIncrement()) {
+                random.setSeed(seed * 31 + chunk);
+                final var end = (int) Math.min(employees.length, (chunk + 1L) * CHUNK_SIZE);
+                for (int i = chunk * CHUNK_SIZE; i < end; i++) {
+                    employees[i] = employee();
+                }
+            }
+        }
+
+        private MockEmployee employee() {
+            return MockEmployee.builder()
+                    .id(randomUuid())
+                    .name(faker.name().fullName())
+                    .salary(faker.number().numberBetween(30000, 500000))
+                    .age(faker.number().numberBetween(16, 70))
+                    .title(faker.job().title())
+                    .email(ServerConfiguration.EMAIL_TEMPLATE.formatted(
+                            faker.twitter().userName().toLowerCase()))
+                    .build();
+        }
+
+        /*
+         * A version 4 UUID drawn from the seeded Random rather than the shared SecureRandom, which keeps ids
+         * reproducible and uncontended.
+         */
+        private UUID randomUuid() {
+            final var most = (random.nextLong() & ~0xF000L) | 0x4000L;
+            final var least = (random.nextLong() & ~(0xC000L << 48)) | (0x8000L << 48);
+            return new UUID(most, least);
+        }
+    }
+}
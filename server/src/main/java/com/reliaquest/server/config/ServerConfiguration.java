@@ -1,21 +1,32 @@
 package com.reliaquest.server.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.reliaquest.server.model.MockEmployee;
-import com.reliaquest.server.web.RandomRequestLimitInterceptor;
-import java.util.ArrayList;
+import com.reliaquest.server.store.MockEmployeePersistence;
+import com.reliaquest.server.store.MockEmployeeStore;
+import com.reliaquest.server.web.EncodedRosterCache;
+import com.reliaquest.server.web.RateLimitInterceptor;
+import com.reliaquest.server.web.RateLimiter;
+import com.reliaquest.server.web.ResponseDelayInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
 import java.util.Locale;
-import java.util.UUID;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 import lombok.extern.slf4j.Slf4j;
 import net.datafaker.Faker;
-import net.datafaker.transformations.Field;
-import net.datafaker.transformations.JavaObjectTransformer;
-import net.datafaker.transformations.Schema;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -25,35 +36,130 @@ public class ServerConfiguration implements WebMvcConfigurer {
 
     public static final String EMAIL_TEMPLATE = "%s@company.com";
 
+    @Value("${mock.rate-limit.enabled:true}")
+    private boolean rateLimitEnabled;
+
+    @Value("${mock.rate-limit.preset:random}")
+    private String rateLimitPreset;
+
+    @Value("${mock.rate-limit.key:}")
+    private String rateLimitKey;
+
+    @Value("${mock.rate-limit.limit:10}")
+    private int rateLimit;
+
+    @Value("${mock.rate-limit.backoff:60s}")
+    private Duration rateLimitBackoff;
+
+    @Value("${mock.rate-limit.permits-per-second:10}")
+    private double rateLimitPermitsPerSecond;
+
+    @Value("${mock.rate-limit.burst:20}")
+    private int rateLimitBurst;
+
+    @Value("${mock.rate-limit.max-clients:10000}")
+    private int rateLimitMaxClients;
+
+    @Value("${mock.response-delay:0ms}")
+    private Duration responseDelay;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Bean
     public Faker faker() {
         return new Faker(Locale.getDefault());
     }
 
     /*
-     * This list is modifiable by design for CRUD operations.
+     * The employees the store is seeded with; the store holds the live roster from then on. Lazy, since a persistent
+     * store only needs it when there is nothing to recover.
      */
+    @Lazy
+    @Bean
+    public List<MockEmployee> mockEmployees(
+            @Value("${mock.employees.max:20}") int maxEmployees,
+            @Value("${mock.employees.seed:#{null}}") Long seed,
+            @Value("${mock.employees.seed-parallelism:0}") int parallelism) {
+        final var threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        final var rosterSeed = seed != null ? seed : ThreadLocalRandom.current().nextLong();
+        return new MockEmployeeSeeder(Locale.getDefault(), rosterSeed, threads).generate(maxEmployees);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "mock.persistence.enabled", havingValue = "true")
+    public MockEmployeePersistence mockEmployeePersistence(
+            @Value("${mock.persistence.directory:data}") Path directory,
+            @Value("${mock.persistence.group-commit-window:0ms}") Duration groupCommitWindow,
+            @Value("${mock.persistence.snapshot-interval:1m}") Duration snapshotInterval) {
+        return new MockEmployeePersistence(directory, groupCommitWindow, snapshotInterval);
+    }
+
     @Bean
-    public List<MockEmployee> mockEmployees(Faker faker, @Value("${mock.employees.max:20}") int maxEmployees) {
-        final var transformer = new JavaObjectTransformer();
-        final var schema = Schema.of(
-                Field.field("id", UUID::randomUUID),
-                Field.field("name", () -> faker.name().fullName()),
-                Field.field("salary", () -> faker.number().numberBetween(30000, 500000)),
-                Field.field("age", () -> faker.number().numberBetween(16, 70)),
-                Field.field("title", () -> faker.job().title()),
-                Field.field(
-                        "email",
-                        () -> EMAIL_TEMPLATE.formatted(
-                                faker.twitter().userName().toLowerCase())));
-        return IntStream.rangeClosed(1, maxEmployees)
-                .mapToObj(ignored -> (MockEmployee) transformer.apply(MockEmployee.class, schema))
-                .peek(mockEmployee -> log.debug("Created employee: {}", mockEmployee))
-                .collect(Collectors.toCollection(ArrayList::new));
+    public MockEmployeeStore mockEmployeeStore(
+            ObjectProvider<List<MockEmployee>> mockEmployees,
+            ObjectProvider<MockEmployeePersistence> persistence,
+            @Value("${mock.changes.capacity:1000}") int changeLogCapacity)
+            throws IOException {
+        final var durable = persistence.getIfAvailable();
+        if (durable == null) {
+            return new MockEmployeeStore(mockEmployees.getObject(), changeLogCapacity);
+        }
+        return durable.open(mockEmployees::getObject, changeLogCapacity);
+    }
+
+    /*
+     * random is the profile this mock has always had: every client together gets a random 5 to 9 requests, then none
+     * for a random 30 to 90s after the last one let through. lockout is the same with limit and backoff as
+     * configured, and token-bucket allows permits-per-second with bursts of burst.
+     */
+    private RateLimitInterceptor rateLimitInterceptor() {
+        final var random = RandomGenerator.getDefault();
+        final RateLimiter limiter =
+                switch (rateLimitPreset) {
+                    case "random" -> RateLimiter.lockout(
+                            random.nextInt(5, 10),
+                            Duration.ofSeconds(random.nextInt(30, 90)),
+                            rateLimitMaxClients,
+                            System::nanoTime);
+                    case "lockout" -> RateLimiter.lockout(
+                            rateLimit, rateLimitBackoff, rateLimitMaxClients, System::nanoTime);
+                    case "token-bucket" -> RateLimiter.tokenBucket(
+                            rateLimitPermitsPerSecond, rateLimitBurst, rateLimitMaxClients, System::nanoTime);
+                    default -> throw new IllegalArgumentException(
+                            "mock.rate-limit.preset must be random, lockout or token-bucket, not " + rateLimitPreset);
+                };
+        final var key = rateLimitKey.isBlank()
+                ? ("token-bucket".equals(rateLimitPreset) ? "remote-address" : "global")
+                : rateLimitKey;
+        return new RateLimitInterceptor(limiter, key, meterRegistry);
     }
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
-        registry.addInterceptor(new RandomRequestLimitInterceptor());
+        if (rateLimitEnabled) {
+            registry.addInterceptor(rateLimitInterceptor());
+        }
+        if (responseDelay.isPositive()) {
+            registry.addInterceptor(new ResponseDelayInterceptor(responseDelay));
+        }
+    }
+
+    /*
+     * Smile, Jackson's binary JSON, for clients that ask for it in Accept. Spring registers a Smile converter after the
+     * JSON one when Smile is on the classpath, so a client that accepts anything still gets JSON; it is swapped for one
+     * that maps like the JSON converter and like the encoded roster.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        final var smile = new MappingJackson2SmileHttpMessageConverter(EncodedRosterCache.smileMapper(objectMapper));
+        converters.replaceAll(
+                converter -> converter instanceof MappingJackson2SmileHttpMessageConverter ? smile : converter);
+        if (!converters.contains(smile)) {
+            converters.add(smile);
+        }
     }
 }
@@ -1,14 +1,22 @@
 package com.reliaquest.server.controller;
 
+import com.reliaquest.server.model.ChangeFeed;
+import com.reliaquest.server.model.ColumnStats;
 import com.reliaquest.server.model.CreateMockEmployeeInput;
 import com.reliaquest.server.model.DeleteMockEmployeeInput;
 import com.reliaquest.server.model.MockEmployee;
 import com.reliaquest.server.model.Response;
 import com.reliaquest.server.service.MockEmployeeService;
+import com.reliaquest.server.store.RosterColumns;
+import com.reliaquest.server.web.EncodedRosterCache;
 import jakarta.validation.Valid;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -16,19 +24,137 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
 @RestController
 @RequestMapping("/api/v1/employee")
 @RequiredArgsConstructor
 public class MockEmployeeController {
 
+    public static final String ROSTER_VERSION = "X-Roster-Version";
+    public static final String TOTAL_COUNT = "X-Total-Count";
+
+    private static final Set<String> RANKING_FIELDS = Set.of("id", "employee_name", "employee_salary");
+
     private final MockEmployeeService mockEmployeeService;
+    private final EncodedRosterCache encodedRosterCache;
 
+    /*
+     * The whole roster is tagged with a strong ETag per version and representation, see eTag; a request whose
+     * If-None-Match still names it is answered 304 Not Modified by Spring without serializing the roster.
+     *
+     * offset and limit select a page of it, and fields (the JSON property names, comma separated) the properties each
+     * employee is sent with. Pages and projections are separate representations, so they carry no ETag; every answer
+     * names the roster version it was cut from in X-Roster-Version, and the roster size in X-Total-Count, so a client
+     * fetching pages in parallel can tell whether they all came from the same roster.
+     *
+     * The whole roster is sent from bytes encoded once per version, in Smile when the client ranks it above JSON, and
+     * gzipped already when the client accepts it. Every other answer is rendered by whichever converter the Accept
+     * header picks, JSON unless Smile is asked for.
+     */
     @GetMapping()
-    public Response<List<MockEmployee>> getEmployees() {
-        return Response.handledWith(mockEmployeeService.getMockEmployees());
+    public ResponseEntity<?> getEmployees(
+            @RequestParam(value = "offset", defaultValue = "0") int offset,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "fields", required = false) Set<String> fields,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        if (offset < 0 || (limit != null && limit < 1)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "offset must be >= 0 and limit >= 1");
+        }
+        if (fields != null && !MockEmployee.FIELDS.containsAll(fields)) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST, "fields must be among " + new TreeSet<>(MockEmployee.FIELDS));
+        }
+        final var roster = mockEmployeeService.getRoster();
+        final var employees = roster.employees();
+        final var whole = offset == 0 && limit == null && fields == null;
+        final var headers = ResponseEntity.ok()
+                .header(ROSTER_VERSION, roster.version())
+                .header(TOTAL_COUNT, Integer.toString(employees.size()));
+        if (whole) {
+            final var encoded = encodedRosterCache.get(roster, EncodedRosterCache.negotiate(accept));
+            final var gzip = EncodedRosterCache.acceptsGzip(acceptEncoding);
+            headers.eTag(eTag(roster.version(), encoded.format(), gzip))
+                    .contentType(encoded.format().mediaType())
+                    .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+            if (gzip) {
+                // Tomcat leaves a response that already has a Content-Encoding alone
+                return headers.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(encoded.gzip());
+            }
+            return headers.body(encoded.body());
+        }
+        final int from = Math.min(offset, employees.size());
+        final int to = limit == null ? employees.size() : (int) Math.min((long) from + limit, employees.size());
+        var page = employees.subList(from, to);
+        if (fields != null) {
+            page = page.stream().map(employee -> employee.project(fields)).toList();
+        }
+        return headers.body(Response.handledWith(page));
+    }
+
+    /*
+     * The roster version, suffixed with the wire format unless it is JSON and with the content coding when there is
+     * one. Every format and coding is different bytes, so a cache holding one must not have it confirmed by a request
+     * that would be sent another. Clients track the version itself through X-Roster-Version.
+     */
+    static String eTag(String version, EncodedRosterCache.Format format, boolean gzip) {
+        final var tag = new StringBuilder(version);
+        if (format != EncodedRosterCache.Format.JSON) {
+            tag.append('-').append(format.name().toLowerCase(Locale.ROOT));
+        }
+        if (gzip) {
+            tag.append("-gzip");
+        }
+        return tag.toString();
+    }
+
+    @GetMapping("/changes")
+    public Response<ChangeFeed> getChanges(@RequestParam("since") String since) {
+        return Response.handledWith(mockEmployeeService.getChangesSince(since));
+    }
+
+    /*
+     * Count, min, max and mean of salary or age over the roster, and the percentiles asked for, without shipping the
+     * roster. X-Roster-Version names the version they were computed on.
+     */
+    @GetMapping("/stats/{column}")
+    public ResponseEntity<Response<ColumnStats>> getStats(
+            @PathVariable("column") String column,
+            @RequestParam(value = "percentiles", defaultValue = "") List<Double> percentiles) {
+        final RosterColumns.Column selected;
+        try {
+            selected = RosterColumns.Column.valueOf(column.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No stats for " + column);
+        }
+        if (percentiles.stream().anyMatch(percentile -> !(percentile > 0 && percentile <= 100))) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "percentiles must be in (0, 100]");
+        }
+        final var columns = mockEmployeeService.getColumns();
+        return ResponseEntity.ok()
+                .header(ROSTER_VERSION, columns.version())
+                .body(Response.handledWith(columns.stats(selected, percentiles)));
+    }
+
+    /*
+     * The limit highest earners, highest first, with their id, name and salary only.
+     */
+    @GetMapping("/top-earners")
+    public ResponseEntity<Response<List<MockEmployee>>> getTopEarners(
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be >= 1");
+        }
+        final var columns = mockEmployeeService.getColumns();
+        final var ranked = columns.topBySalary(limit).stream()
+                .map(employee -> employee.project(RANKING_FIELDS))
+                .toList();
+        return ResponseEntity.ok().header(ROSTER_VERSION, columns.version()).body(Response.handledWith(ranked));
     }
 
     @GetMapping("/{id}")
@@ -48,4 +174,11 @@ public class MockEmployeeController {
     public Response<Boolean> deleteEmployee(@Valid @RequestBody DeleteMockEmployeeInput input) {
         return Response.handledWith(mockEmployeeService.delete(input));
     }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Response<Boolean>> deleteEmployeeById(@PathVariable("id") UUID uuid) {
+        return mockEmployeeService.deleteById(uuid)
+                ? ResponseEntity.ok(Response.handledWith(true))
+                : ResponseEntity.status(HttpStatus.NOT_FOUND).body(Response.handledWith(false));
+    }
 }
@@ -0,0 +1,14 @@
+package com.reliaquest.server.model;
+
+import java.util.List;
+
+/*
+ * The changes after a roster version, oldest first, and the version they bring the roster to. When the changes since
+ * the requested version are no longer all in the log, resync is set and the roster has to be fetched whole.
+ */
+public record ChangeFeed(String version, boolean resync, List<MockEmployeeChange> changes) {
+
+    public static ChangeFeed resync(String version) {
+        return new ChangeFeed(version, true, List.of());
+    }
+}
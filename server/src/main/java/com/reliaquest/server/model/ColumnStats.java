@@ -0,0 +1,10 @@
+package com.reliaquest.server.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.Map;
+
+/*
+ * Aggregates of one numeric column of the roster. Percentiles are keyed "p" and the percentile, as in p50 or p99.9.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ColumnStats(int count, Integer min, Integer max, Double mean, Map<String, Integer> percentiles) {}
@@ -1,7 +1,9 @@
 package com.reliaquest.server.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import java.util.Set;
 import java.util.UUID;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -12,8 +14,15 @@ import lombok.NonNull;
 @AllArgsConstructor
 @Builder(toBuilder = true)
 @JsonNaming(MockEmployee.PrefixNamingStrategy.class)
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class MockEmployee {
 
+    /*
+     * Property names as serialized, which are also the names a projection selects by.
+     */
+    public static final Set<String> FIELDS =
+            Set.of("id", "employee_name", "employee_salary", "employee_age", "employee_title", "employee_email");
+
     private UUID id;
     private String name;
     private Integer salary;
@@ -32,6 +41,19 @@ public class MockEmployee {
                 .build();
     }
 
+    /*
+     * A copy holding only the given fields; the others are left out of its JSON.
+     */
+    public MockEmployee project(@NonNull Set<String> fields) {
+        return new MockEmployee(
+                fields.contains("id") ? id : null,
+                fields.contains("employee_name") ? name : null,
+                fields.contains("employee_salary") ? salary : null,
+                fields.contains("employee_age") ? age : null,
+                fields.contains("employee_title") ? title : null,
+                fields.contains("employee_email") ? email : null);
+    }
+
     static class PrefixNamingStrategy extends PropertyNamingStrategies.NamingBase {
 
         @Override
@@ -1,35 +1,59 @@
 package com.reliaquest.server.service;
 
 import com.reliaquest.server.config.ServerConfiguration;
+import com.reliaquest.server.model.ChangeFeed;
 import com.reliaquest.server.model.CreateMockEmployeeInput;
 import com.reliaquest.server.model.DeleteMockEmployeeInput;
 import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.store.MockEmployeeStore;
+import com.reliaquest.server.store.RosterColumns;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
-import lombok.Getter;
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.datafaker.Faker;
 import org.springframework.stereotype.Service;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class MockEmployeeService {
 
     private final Faker faker;
+    private final MockEmployeeStore store;
 
-    @Getter
-    private final List<MockEmployee> mockEmployees;
+    public MockEmployeeService(Faker faker, MockEmployeeStore store, MeterRegistry meterRegistry) {
+        this.faker = faker;
+        this.store = store;
+        Gauge.builder("mock.employees.size", store, MockEmployeeStore::size)
+                .description("Employees in the mock store")
+                .register(meterRegistry);
+    }
+
+    public int size() {
+        return store.size();
+    }
+
+    public List<MockEmployee> getMockEmployees() {
+        return getRoster().employees();
+    }
+
+    public MockEmployeeStore.Snapshot getRoster() {
+        return store.snapshot();
+    }
+
+    public RosterColumns getColumns() {
+        return store.columns();
+    }
 
     public Optional<MockEmployee> findById(@NonNull UUID uuid) {
-        return mockEmployees.stream()
-                .filter(mockEmployee -> Objects.nonNull(mockEmployee.getId())
-                        && mockEmployee.getId().equals(uuid))
-                .findFirst();
+        return store.findById(uuid);
+    }
+
+    public ChangeFeed getChangesSince(@NonNull String since) {
+        return store.changesSince(since);
     }
 
     public MockEmployee create(@NonNull CreateMockEmployeeInput input) {
@@ -37,22 +61,20 @@ public class MockEmployeeService {
                 ServerConfiguration.EMAIL_TEMPLATE.formatted(
                         faker.twitter().userName().toLowerCase()),
                 input);
-        mockEmployees.add(mockEmployee);
+        store.add(mockEmployee);
         log.debug("Added employee: {}", mockEmployee);
         return mockEmployee;
     }
 
+    public boolean deleteById(@NonNull UUID uuid) {
+        final var removed = store.removeById(uuid);
+        removed.ifPresent(employee -> log.debug("Removed employee: {}", employee));
+        return removed.isPresent();
+    }
+
     public boolean delete(@NonNull DeleteMockEmployeeInput input) {
-        final var mockEmployee = mockEmployees.stream()
-                .filter(employee -> Objects.nonNull(employee.getName())
-                        && employee.getName().equalsIgnoreCase(input.getName()))
-                .findFirst();
-        if (mockEmployee.isPresent()) {
-            mockEmployees.remove(mockEmployee.get());
-            log.debug("Removed employee: {}", mockEmployee.get());
-            return true;
-        }
-
-        return false;
+        final var removed = store.removeFirstByName(input.getName());
+        removed.ifPresent(employee -> log.debug("Removed employee: {}", employee));
+        return removed.isPresent();
     }
 }
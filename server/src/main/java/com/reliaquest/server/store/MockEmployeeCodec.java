@@ -0,0 +1,122 @@
+package com.reliaquest.server.store;
+
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeChange;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/*
+ * The binary form of employees and changes in the persistence files. Strings are UTF-8 prefixed by their length, with
+ * -1 for null; the optional numbers are preceded by a byte flagging which of them are present.
+ */
+final class MockEmployeeCodec {
+
+    private static final byte CREATED = 1;
+    private static final byte DELETED = 2;
+
+    private static final byte HAS_SALARY = 1;
+    private static final byte HAS_AGE = 2;
+
+    private MockEmployeeCodec() {}
+
+    static ByteBuffer encode(MockEmployeeChange change) {
+        final var created = change.type() == MockEmployeeChange.Type.CREATED;
+        final var buffer =
+                ByteBuffer.allocate(Byte.BYTES + Long.BYTES + (created ? size(change.employee()) : 2 * Long.BYTES));
+        buffer.put(created ? CREATED : DELETED).putLong(change.version());
+        if (created) {
+            encode(change.employee(), buffer);
+        } else {
+            putId(buffer, change.id());
+        }
+        return buffer.flip();
+    }
+
+    static MockEmployeeChange decodeChange(ByteBuffer buffer) {
+        final var type = buffer.get();
+        final var version = buffer.getLong();
+        return switch (type) {
+            case CREATED -> {
+                final var employee = decode(buffer);
+                yield new MockEmployeeChange(version, MockEmployeeChange.Type.CREATED, employee.getId(), employee);
+            }
+            case DELETED -> new MockEmployeeChange(version, MockEmployeeChange.Type.DELETED, getId(buffer), null);
+            default -> throw new IllegalArgumentException("Unknown change type " + type);
+        };
+    }
+
+    static int size(MockEmployee employee) {
+        return 2 * Long.BYTES
+                + Byte.BYTES
+                + (employee.getSalary() == null ? 0 : Integer.BYTES)
+                + (employee.getAge() == null ? 0 : Integer.BYTES)
+                + size(employee.getName())
+                + size(employee.getTitle())
+                + size(employee.getEmail());
+    }
+
+    static void encode(MockEmployee employee, ByteBuffer buffer) {
+        putId(buffer, employee.getId());
+        buffer.put(
+                (byte) ((employee.getSalary() == null ? 0 : HAS_SALARY) | (employee.getAge() == null ? 0 : HAS_AGE)));
+        if (employee.getSalary() != null) {
+            buffer.putInt(employee.getSalary());
+        }
+        if (employee.getAge() != null) {
+            buffer.putInt(employee.getAge());
+        }
+        putString(buffer, employee.getName());
+        putString(buffer, employee.getTitle());
+        putString(buffer, employee.getEmail());
+    }
+
+    static MockEmployee decode(ByteBuffer buffer) {
+        final var id = getId(buffer);
+        final var present = buffer.get();
+        final var salary = (present & HAS_SALARY) == 0 ? null : buffer.getInt();
+        final var age = (present & HAS_AGE) == 0 ? null : buffer.getInt();
+        return MockEmployee.builder()
+                .id(id)
+                .salary(salary)
+                .age(age)
+                .name(getString(buffer))
+                .title(getString(buffer))
+                .email(getString(buffer))
+                .build();
+    }
+
+    private static void putId(ByteBuffer buffer, UUID id) {
+        buffer.putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits());
+    }
+
+    private static UUID getId(ByteBuffer buffer) {
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    private static int size(String value) {
+        return Integer.BYTES + (value == null ? 0 : value.getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        final var bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(bytes.length).put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        final var length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > buffer.remaining()) {
+            throw new IllegalArgumentException("String of " + length + " bytes runs past the record");
+        }
+        final var bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
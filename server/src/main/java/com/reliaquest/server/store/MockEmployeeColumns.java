@@ -0,0 +1,82 @@
+package com.reliaquest.server.store;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/*
+ * Salary, age and the two halves of the id as primitive columns, row for row with the employees they belong to. A removal moves the last row
+ * into the gap, so rows stay dense and every write is O(1); row order is therefore not the roster order, which no
+ * aggregate depends on.
+ *
+ * Not thread-safe: the store only touches it holding its write lock, and readers get frozen copies.
+ */
+final class MockEmployeeColumns {
+
+    private final Map<UUID, Integer> rowOf;
+    private MockEmployee[] rows;
+    private int[] salaries;
+    private int[] ages;
+    private long[] idHighs;
+    private long[] idLows;
+    private int size;
+
+    MockEmployeeColumns(int capacity) {
+        final var initial = Math.max(capacity, 16);
+        this.rowOf = HashMap.newHashMap(initial);
+        this.rows = new MockEmployee[initial];
+        this.salaries = new int[initial];
+        this.ages = new int[initial];
+        this.idHighs = new long[initial];
+        this.idLows = new long[initial];
+    }
+
+    void add(MockEmployee employee) {
+        if (size == rows.length) {
+            final var grown = size + (size >> 1);
+            rows = Arrays.copyOf(rows, grown);
+            salaries = Arrays.copyOf(salaries, grown);
+            ages = Arrays.copyOf(ages, grown);
+            idHighs = Arrays.copyOf(idHighs, grown);
+            idLows = Arrays.copyOf(idLows, grown);
+        }
+        rows[size] = employee;
+        // Creates validate both as present; only a hand-made seed could leave them out
+        salaries[size] = Objects.requireNonNullElse(employee.getSalary(), 0);
+        ages[size] = Objects.requireNonNullElse(employee.getAge(), 0);
+        idHighs[size] = employee.getId().getMostSignificantBits();
+        idLows[size] = employee.getId().getLeastSignificantBits();
+        rowOf.put(employee.getId(), size);
+        size++;
+    }
+
+    void remove(MockEmployee employee) {
+        final Integer row = rowOf.remove(employee.getId());
+        if (row == null) {
+            return;
+        }
+        final var last = --size;
+        if (row != last) {
+            rows[row] = rows[last];
+            salaries[row] = salaries[last];
+            ages[row] = ages[last];
+            idHighs[row] = idHighs[last];
+            idLows[row] = idLows[last];
+            rowOf.put(rows[row].getId(), row);
+        }
+        rows[last] = null;
+    }
+
+    RosterColumns freeze(String version) {
+        return new RosterColumns(
+                version,
+                Arrays.copyOf(rows, size),
+                Arrays.copyOf(salaries, size),
+                Arrays.copyOf(ages, size),
+                Arrays.copyOf(idHighs, size),
+                Arrays.copyOf(idLows, size));
+    }
+}
@@ -0,0 +1,29 @@
+package com.reliaquest.server.store;
+
+import com.reliaquest.server.model.MockEmployeeChange;
+
+/*
+ * Where the store records its writes for them to outlive the process.
+ */
+public interface MockEmployeeJournal {
+
+    MockEmployeeJournal NONE = new MockEmployeeJournal() {
+
+        @Override
+        public void append(MockEmployeeChange change) {}
+
+        @Override
+        public void awaitDurable(long version) {}
+    };
+
+    /*
+     * Called in version order under the store's write lock, so it only queues the change and never waits on I/O.
+     * Throws instead once the journal is closed or can no longer write, before the store applies the change.
+     */
+    void append(MockEmployeeChange change);
+
+    /*
+     * Blocks until the change with the given version and every one before it are on disk.
+     */
+    void awaitDurable(long version);
+}
@@ -0,0 +1,245 @@
+package com.reliaquest.server.store;
+
+import com.reliaquest.server.model.MockEmployeeChange;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * The append-only change log, written in segments that each start at a known version so that the ones a snapshot
+ * covers can be deleted whole.
+ *
+ * Appends only queue the encoded change. One writer thread drains the queue, writes it with a single gathering write
+ * and forces it to disk, so every change that arrived while the previous batch was being forced shares the next
+ * force: group commit. The writer can also linger for a short window before draining, to batch more when writes are
+ * sparse but forces are slow.
+ *
+ * Every record is framed by its length and a CRC32C of its bytes, so a tail torn by a crash is detected on recovery
+ * and cut off.
+ */
+@Slf4j
+class MockEmployeeLog implements MockEmployeeJournal, AutoCloseable {
+
+    static final int FRAME_HEADER = 2 * Integer.BYTES;
+
+    private final Path directory;
+    private final long groupCommitWindowNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private final Condition flushed = lock.newCondition();
+
+    /*
+     * Guarded by lock: the frames queued since the writer last drained, the version of the newest of them, the version
+     * everything up to which is on disk, and the error that stopped the writer if any.
+     */
+    private List<ByteBuffer> pending = new ArrayList<>();
+
+    private long appendedVersion;
+    private long durableVersion;
+    private IOException failure;
+    private boolean closed;
+
+    /*
+     * Held while writing to or switching the segment, so batches reach the segments in version order.
+     */
+    private final ReentrantLock ioLock = new ReentrantLock();
+
+    private FileChannel segment;
+    private final Thread writer;
+
+    /*
+     * Opens a segment for the changes after the given version and starts the writer thread.
+     */
+    MockEmployeeLog(Path directory, long version, Duration groupCommitWindow) throws IOException {
+        this.directory = directory;
+        this.groupCommitWindowNanos = groupCommitWindow.toNanos();
+        this.appendedVersion = version;
+        this.durableVersion = version;
+        this.segment = open(version + 1);
+        this.writer = Thread.ofPlatform().name("mock-employee-log").daemon().start(this::writeLoop);
+    }
+
+    static String segmentName(long firstVersion) {
+        return "changes-%020d.log".formatted(firstVersion);
+    }
+
+    @Override
+    public void append(MockEmployeeChange change) {
+        final var payload = MockEmployeeCodec.encode(change);
+        final var crc = new CRC32C();
+        crc.update(payload.duplicate());
+        final var frame = ByteBuffer.allocate(FRAME_HEADER + payload.remaining())
+                .putInt(payload.remaining())
+                .putInt((int) crc.getValue())
+                .put(payload)
+                .flip();
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Change log is closed");
+            }
+            if (failure != null) {
+                throw new UncheckedIOException("Change log can no longer be written", failure);
+            }
+            pending.add(frame);
+            appendedVersion = change.version();
+            appended.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void awaitDurable(long version) {
+        lock.lock();
+        try {
+            while (durableVersion < version && failure == null) {
+                flushed.awaitUninterruptibly();
+            }
+            if (durableVersion < version) {
+                throw new UncheckedIOException("Change " + version + " could not be logged", failure);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*
+     * Writes out everything queued, then starts a new segment for the changes after the newest of it. Returns the
+     * version the closed segments end at.
+     */
+    long rotate() throws IOException {
+        ioLock.lock();
+        try {
+            final var upTo = flush();
+            segment.close();
+            segment = open(upTo + 1);
+            return upTo;
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closed = true;
+            appended.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        ioLock.lock();
+        try {
+            flush();
+            segment.close();
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    private void writeLoop() {
+        while (awaitAppends()) {
+            ioLock.lock();
+            try {
+                flush();
+            } catch (IOException e) {
+                log.error("Change log write failed; later writes to the store will fail", e);
+                lock.lock();
+                try {
+                    failure = e;
+                    flushed.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                return;
+            } finally {
+                ioLock.unlock();
+            }
+        }
+    }
+
+    /*
+     * Waits for something to write, then for the group commit window; false once closed with nothing queued.
+     */
+    private boolean awaitAppends() {
+        lock.lock();
+        try {
+            while (pending.isEmpty() && !closed) {
+                appended.awaitUninterruptibly();
+            }
+            if (pending.isEmpty()) {
+                return false;
+            }
+            if (groupCommitWindowNanos > 0 && !closed) {
+                lock.unlock();
+                try {
+                    TimeUnit.NANOSECONDS.sleep(groupCommitWindowNanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    lock.lock();
+                }
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*
+     * Called holding ioLock. Writes and forces the queued frames, and returns the version that is durable after it.
+     */
+    private long flush() throws IOException {
+        final List<ByteBuffer> batch;
+        final long upTo;
+        lock.lock();
+        try {
+            batch = pending;
+            upTo = appendedVersion;
+            pending = new ArrayList<>();
+        } finally {
+            lock.unlock();
+        }
+        if (!batch.isEmpty()) {
+            final var frames = batch.toArray(ByteBuffer[]::new);
+            while (frames[frames.length - 1].hasRemaining()) {
+                segment.write(frames);
+            }
+            segment.force(false);
+        }
+        lock.lock();
+        try {
+            durableVersion = upTo;
+            flushed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        return upTo;
+    }
+
+    private FileChannel open(long firstVersion) throws IOException {
+        return FileChannel.open(
+                directory.resolve(segmentName(firstVersion)),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+}
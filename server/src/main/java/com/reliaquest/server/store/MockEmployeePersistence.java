@@ -0,0 +1,288 @@
+package com.reliaquest.server.store;
+
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeChange;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32C;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Keeps the roster of a store on disk, in a directory holding a snapshot of the roster and the change log since.
+ *
+ * The snapshot is written through a memory-mapped temporary file that replaces the previous one atomically, and read
+ * back by mapping it. Every snapshot interval the log is rotated, the roster is snapshotted and the segments the
+ * snapshot covers are deleted, which keeps replay short. Recovery maps the snapshot and replays the log on top of it.
+ */
+@Slf4j
+public class MockEmployeePersistence implements AutoCloseable {
+
+    static final String SNAPSHOT = "roster.snapshot";
+
+    private static final int MAGIC = 0x4D454D52;
+    private static final int FORMAT = 1;
+    private static final int SNAPSHOT_HEADER = 3 * Integer.BYTES + Long.BYTES;
+    private static final Pattern SEGMENT = Pattern.compile("changes-(\\d{20})\\.log");
+
+    private final Path directory;
+    private final Duration groupCommitWindow;
+    private final Duration snapshotInterval;
+    private final ScheduledExecutorService snapshots = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("mock-employee-snapshot").daemon().factory());
+
+    private MockEmployeeStore store;
+    private MockEmployeeLog changeLog;
+    private long snapshotVersion = -1;
+
+    public MockEmployeePersistence(
+            @NonNull Path directory, @NonNull Duration groupCommitWindow, @NonNull Duration snapshotInterval) {
+        this.directory = directory;
+        this.groupCommitWindow = groupCommitWindow;
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    /*
+     * Recovers the store from the directory, or seeds it when there is nothing to recover, and starts logging its
+     * writes. Recovery ends with a compaction, so the next start only replays what changes from now on.
+     */
+    public synchronized MockEmployeeStore open(@NonNull Supplier<List<MockEmployee>> seed, int changeLogCapacity)
+            throws IOException {
+        if (store != null) {
+            throw new IllegalStateException("Already opened");
+        }
+        Files.createDirectories(directory);
+        final long started = System.nanoTime();
+        final var recovered = recover();
+        final var version = recovered.map(Recovered::version).orElse(0L);
+        final var employees = recovered.map(Recovered::employees).orElseGet(seed);
+        recovered.ifPresentOrElse(
+                roster -> log.info(
+                        "Recovered {} employees at version {} from {} in {}ms",
+                        roster.employees().size(),
+                        roster.version(),
+                        directory,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)),
+                () -> log.info("Nothing to recover from {}; seeded {} employees", directory, employees.size()));
+
+        writeSnapshot(version, employees);
+        deleteSegmentsUpTo(version);
+        changeLog = new MockEmployeeLog(directory, version, groupCommitWindow);
+        store = new MockEmployeeStore(employees, version, changeLogCapacity, changeLog);
+        if (snapshotInterval.isPositive()) {
+            snapshots.scheduleWithFixedDelay(
+                    this::compactQuietly,
+                    snapshotInterval.toMillis(),
+                    snapshotInterval.toMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+        return store;
+    }
+
+    /*
+     * Snapshots the roster unless it has not changed since the last snapshot, then deletes the log segments the
+     * snapshot covers.
+     */
+    public synchronized void compact() throws IOException {
+        if (store == null) {
+            throw new IllegalStateException("Not opened");
+        }
+        // Rotating first guarantees the snapshot taken next covers every closed segment
+        final var closedUpTo = changeLog.rotate();
+        final var roster = store.snapshot();
+        if (roster.sequence() != snapshotVersion) {
+            writeSnapshot(roster.sequence(), roster.employees());
+        }
+        deleteSegmentsUpTo(closedUpTo);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        snapshots.shutdown();
+        if (store != null) {
+            compact();
+            changeLog.close();
+        }
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (IOException | RuntimeException e) {
+            log.error("Snapshot of the roster failed; the change log keeps growing until one succeeds", e);
+        }
+    }
+
+    private Optional<Recovered> recover() throws IOException {
+        final var snapshotFile = directory.resolve(SNAPSHOT);
+        final var hasSnapshot = Files.exists(snapshotFile);
+        final Map<UUID, MockEmployee> roster = new LinkedHashMap<>();
+        long version = hasSnapshot ? readSnapshot(snapshotFile, roster) : 0;
+
+        final var segments = segments();
+        for (int i = 0; i < segments.size(); i++) {
+            final var changes = readSegment(segments.get(i), i == segments.size() - 1);
+            for (MockEmployeeChange change : changes) {
+                if (change.version() <= version) {
+                    continue;
+                }
+                if (!hasSnapshot || change.version() != version + 1) {
+                    throw new IllegalStateException(
+                            "Change log in " + directory + " continues at " + change.version() + " after " + version);
+                }
+                if (change.type() == MockEmployeeChange.Type.CREATED) {
+                    roster.put(change.id(), change.employee());
+                } else {
+                    roster.remove(change.id());
+                }
+                version = change.version();
+            }
+        }
+        return hasSnapshot ? Optional.of(new Recovered(version, List.copyOf(roster.values()))) : Optional.empty();
+    }
+
+    private long readSnapshot(Path file, Map<UUID, MockEmployee> roster) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < SNAPSHOT_HEADER + Integer.BYTES) {
+                throw new IllegalStateException(file + " is truncated");
+            }
+            final var crc = new CRC32C();
+            crc.update(buffer.slice(0, buffer.limit() - Integer.BYTES));
+            if (buffer.getInt(buffer.limit() - Integer.BYTES) != (int) crc.getValue()) {
+                throw new IllegalStateException(file + " is corrupt");
+            }
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT) {
+                throw new IllegalStateException(file + " is not a roster snapshot of this format");
+            }
+            final var version = buffer.getLong();
+            final var count = buffer.getInt();
+            for (int i = 0; i < count; i++) {
+                final var employee = MockEmployeeCodec.decode(buffer);
+                roster.put(employee.getId(), employee);
+            }
+            return version;
+        }
+    }
+
+    private void writeSnapshot(long version, List<MockEmployee> employees) throws IOException {
+        long size = SNAPSHOT_HEADER + Integer.BYTES;
+        for (MockEmployee employee : employees) {
+            size += MockEmployeeCodec.size(employee);
+        }
+        final var temporary = directory.resolve(SNAPSHOT + ".tmp");
+        try (var channel = FileChannel.open(
+                temporary,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            final var buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(MAGIC).putInt(FORMAT).putLong(version).putInt(employees.size());
+            employees.forEach(employee -> MockEmployeeCodec.encode(employee, buffer));
+            final var crc = new CRC32C();
+            crc.update(buffer.slice(0, buffer.position()));
+            buffer.putInt((int) crc.getValue());
+            buffer.force();
+        }
+        Files.move(temporary, directory.resolve(SNAPSHOT), StandardCopyOption.ATOMIC_MOVE);
+        snapshotVersion = version;
+    }
+
+    /*
+     * The changes in a segment. A torn record ends the last segment, which is cut back to the records before it; in
+     * any other segment it means the log is corrupt.
+     */
+    private List<MockEmployeeChange> readSegment(Path file, boolean last) throws IOException {
+        final var changes = new ArrayList<MockEmployeeChange>();
+        final long valid;
+        final long size;
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            size = channel.size();
+            final var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            while (true) {
+                final var change = readFrame(buffer);
+                if (change == null) {
+                    break;
+                }
+                changes.add(change);
+            }
+            valid = buffer.position();
+        }
+        if (valid < size) {
+            if (!last) {
+                throw new IllegalStateException(file + " is corrupt at byte " + valid);
+            }
+            log.warn("Cutting a torn record off the end of {} at byte {}", file, valid);
+            try (var channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(valid);
+                channel.force(true);
+            }
+        }
+        return changes;
+    }
+
+    /*
+     * The change framed at the buffer's position, advancing past it, or null leaving the position alone when there is
+     * no whole, intact record there.
+     */
+    private static MockEmployeeChange readFrame(ByteBuffer buffer) {
+        final var start = buffer.position();
+        if (buffer.remaining() < MockEmployeeLog.FRAME_HEADER) {
+            return null;
+        }
+        final var length = buffer.getInt(start);
+        if (length <= 0 || length > buffer.remaining() - MockEmployeeLog.FRAME_HEADER) {
+            return null;
+        }
+        final var payload = buffer.slice(start + MockEmployeeLog.FRAME_HEADER, length);
+        final var crc = new CRC32C();
+        crc.update(payload.duplicate());
+        if (buffer.getInt(start + Integer.BYTES) != (int) crc.getValue()) {
+            return null;
+        }
+        final var change = MockEmployeeCodec.decodeChange(payload);
+        buffer.position(start + MockEmployeeLog.FRAME_HEADER + length);
+        return change;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.filter(file ->
+                            SEGMENT.matcher(file.getFileName().toString()).matches())
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /*
+     * Deletes the segments that start at or before the given version, which the current snapshot covers.
+     */
+    private void deleteSegmentsUpTo(long version) throws IOException {
+        for (Path segment : segments()) {
+            final var matcher = SEGMENT.matcher(segment.getFileName().toString());
+            if (matcher.matches() && Long.parseLong(matcher.group(1)) <= version) {
+                Files.delete(segment);
+            }
+        }
+    }
+
+    private record Recovered(long version, List<MockEmployee> employees) {}
+}
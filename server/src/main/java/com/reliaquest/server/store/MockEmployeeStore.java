@@ -0,0 +1,341 @@
+package com.reliaquest.server.store;
+
+import com.reliaquest.server.model.ChangeFeed;
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeChange;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.NonNull;
+
+/*
+ * The employees of the mock server, indexed by id and by case-insensitive name.
+ *
+ * Reads never lock: lookups go to concurrent indexes, and listings share an immutable snapshot of the roster that is
+ * built once per version. Writes are serialized on one lock, which keeps the insertion order, the indexes, the
+ * version and the change log in step; they are rare next to reads. A write returns once its journal has it on disk,
+ * waiting outside the lock so that concurrent writes share the wait. It is handed to the journal before it is applied,
+ * so once the journal is closed or has failed, writes are refused without showing up in the roster or the change feed.
+ *
+ * Salaries and ages are also kept as primitive columns, updated by every write, for aggregates that would otherwise
+ * have to walk the employees; readers get a frozen copy per version, like the snapshot.
+ */
+public class MockEmployeeStore {
+
+    /*
+     * Identifies this run of the server, so versions handed out before a restart never match the reseeded roster.
+     */
+    private final String epoch = Long.toHexString(ThreadLocalRandom.current().nextLong());
+
+    private final Map<UUID, MockEmployee> byId;
+
+    /*
+     * Values are immutable lists in insertion order, replaced whole by writes.
+     */
+    private final Map<String, List<MockEmployee>> byName;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    /*
+     * Guarded by writeLock: the insertion order, the version every write bumps, and the most recent changes, oldest
+     * first, for clients syncing incrementally.
+     */
+    private final Map<UUID, MockEmployee> ordered;
+    private final MockEmployeeColumns columns;
+
+    private final Deque<MockEmployeeChange> changes = new ArrayDeque<>();
+    private final int changeLogCapacity;
+    private final MockEmployeeJournal journal;
+    private long version;
+
+    /*
+     * The snapshot of the current version, or null until a read builds it after a write.
+     */
+    private volatile Snapshot snapshot;
+
+    private volatile RosterColumns columnsView;
+
+    public MockEmployeeStore(@NonNull Collection<MockEmployee> seed, int changeLogCapacity) {
+        this(seed, 0, changeLogCapacity, MockEmployeeJournal.NONE);
+    }
+
+    /*
+     * A store holding the given roster at the given version, which is where a recovered roster left off.
+     */
+    public MockEmployeeStore(
+            @NonNull Collection<MockEmployee> seed,
+            long version,
+            int changeLogCapacity,
+            @NonNull MockEmployeeJournal journal) {
+        if (changeLogCapacity < 0) {
+            throw new IllegalArgumentException("Change log capacity must not be negative");
+        }
+        this.changeLogCapacity = changeLogCapacity;
+        this.journal = journal;
+        this.version = version;
+        // Sized for the seed up front, so a large one is indexed without rehashing
+        this.byId = new ConcurrentHashMap<>(seed.size());
+        this.byName = new ConcurrentHashMap<>(seed.size());
+        this.ordered = LinkedHashMap.newLinkedHashMap(seed.size());
+        this.columns = new MockEmployeeColumns(seed.size());
+        seed.stream()
+                .filter(employee -> Objects.nonNull(employee.getId()))
+                .forEach(employee -> ordered.put(employee.getId(), employee));
+        // Indexed from the roster rather than the seed, so an id listed twice gets one row and one name entry
+        ordered.values().forEach(this::indexLookups);
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    public Optional<MockEmployee> findById(@NonNull UUID id) {
+        return Optional.ofNullable(byId.get(id));
+    }
+
+    /*
+     * Employees whose name equals the given one, ignoring case, in the order they were added.
+     */
+    public List<MockEmployee> findByName(String name) {
+        final var key = nameKey(name);
+        return key == null ? List.of() : byName.getOrDefault(key, List.of());
+    }
+
+    public Snapshot snapshot() {
+        final var current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        writeLock.lock();
+        try {
+            if (snapshot == null) {
+                snapshot = new Snapshot(versionOf(version), version, List.copyOf(ordered.values()));
+            }
+            return snapshot;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /*
+     * The salary and age columns at the current version.
+     */
+    public RosterColumns columns() {
+        final var current = columnsView;
+        if (current != null) {
+            return current;
+        }
+        writeLock.lock();
+        try {
+            if (columnsView == null) {
+                columnsView = columns.freeze(versionOf(version));
+            }
+            return columnsView;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /*
+     * Adds the employee unless one with its id is already stored.
+     */
+    public boolean add(@NonNull MockEmployee employee) {
+        Objects.requireNonNull(employee.getId(), "Employee id");
+        final long written;
+        writeLock.lock();
+        try {
+            if (ordered.containsKey(employee.getId())) {
+                return false;
+            }
+            written = changed(MockEmployeeChange.created(version + 1, employee));
+            index(employee);
+        } finally {
+            writeLock.unlock();
+        }
+        journal.awaitDurable(written);
+        return true;
+    }
+
+    public Optional<MockEmployee> removeById(@NonNull UUID id) {
+        final MockEmployee removed;
+        final long written;
+        writeLock.lock();
+        try {
+            removed = ordered.get(id);
+            if (removed == null) {
+                return Optional.empty();
+            }
+            written = remove(removed);
+        } finally {
+            writeLock.unlock();
+        }
+        journal.awaitDurable(written);
+        return Optional.of(removed);
+    }
+
+    /*
+     * Removes the earliest added employee with the given name, ignoring case.
+     */
+    public Optional<MockEmployee> removeFirstByName(String name) {
+        final MockEmployee removed;
+        final long written;
+        writeLock.lock();
+        try {
+            final var matches = findByName(name);
+            if (matches.isEmpty()) {
+                return Optional.empty();
+            }
+            removed = matches.get(0);
+            written = remove(removed);
+        } finally {
+            writeLock.unlock();
+        }
+        journal.awaitDurable(written);
+        return Optional.of(removed);
+    }
+
+    /*
+     * The changes after the given roster version, or a resync when some of them have been trimmed from the log or the
+     * version is not one this store handed out.
+     */
+    public ChangeFeed changesSince(@NonNull String since) {
+        writeLock.lock();
+        try {
+            final var current = versionOf(version);
+            final long from = parseVersion(since);
+            if (from < 0 || from > version) {
+                return ChangeFeed.resync(current);
+            }
+            final var newer = new ArrayList<MockEmployeeChange>();
+            final var newestFirst = changes.descendingIterator();
+            long oldestSeen = version + 1;
+            while (newestFirst.hasNext()) {
+                final var change = newestFirst.next();
+                if (change.version() <= from) {
+                    break;
+                }
+                newer.add(change);
+                oldestSeen = change.version();
+            }
+            if (oldestSeen != from + 1) {
+                return ChangeFeed.resync(current);
+            }
+            Collections.reverse(newer);
+            return new ChangeFeed(current, false, List.copyOf(newer));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /*
+     * Called holding writeLock, or from the constructor.
+     */
+    private void index(MockEmployee employee) {
+        ordered.put(employee.getId(), employee);
+        indexLookups(employee);
+    }
+
+    private void indexLookups(MockEmployee employee) {
+        byId.put(employee.getId(), employee);
+        columns.add(employee);
+        final var key = nameKey(employee.getName());
+        if (key != null) {
+            byName.merge(key, List.of(employee), MockEmployeeStore::concat);
+        }
+    }
+
+    /*
+     * Called holding writeLock.
+     */
+    private void unindex(MockEmployee employee) {
+        ordered.remove(employee.getId());
+        byId.remove(employee.getId());
+        columns.remove(employee);
+        final var key = nameKey(employee.getName());
+        if (key != null) {
+            byName.computeIfPresent(key, (ignored, matches) -> without(matches, employee));
+        }
+    }
+
+    /*
+     * Called holding writeLock.
+     */
+    private long remove(MockEmployee employee) {
+        final var written = changed(MockEmployeeChange.deleted(version + 1, employee));
+        unindex(employee);
+        return written;
+    }
+
+    /*
+     * Called holding writeLock, before every write touches the roster: a journal that refuses the change fails the
+     * write with nothing applied. Returns the version the write brings the roster to.
+     */
+    private long changed(MockEmployeeChange change) {
+        journal.append(change);
+        version = change.version();
+        snapshot = null;
+        columnsView = null;
+        if (changeLogCapacity > 0) {
+            if (changes.size() == changeLogCapacity) {
+                changes.removeFirst();
+            }
+            changes.addLast(change);
+        }
+        return version;
+    }
+
+    private String versionOf(long version) {
+        return epoch + "-" + version;
+    }
+
+    /*
+     * The counter of a version of this store, or -1 for anything else.
+     */
+    private long parseVersion(String version) {
+        final var prefix = epoch + "-";
+        if (!version.startsWith(prefix)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(version.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static String nameKey(String name) {
+        return name == null ? null : name.toLowerCase(Locale.ROOT);
+    }
+
+    private static List<MockEmployee> concat(List<MockEmployee> matches, List<MockEmployee> added) {
+        final var merged = new ArrayList<MockEmployee>(matches.size() + added.size());
+        merged.addAll(matches);
+        merged.addAll(added);
+        return List.copyOf(merged);
+    }
+
+    private static List<MockEmployee> without(List<MockEmployee> matches, MockEmployee removed) {
+        final var remaining =
+                matches.stream().filter(employee -> employee != removed).toList();
+        return remaining.isEmpty() ? null : remaining;
+    }
+
+    /*
+     * An immutable copy of the roster at one version. The version is unique to its contents for the life of the
+     * server and changes with every write; the sequence is the count of writes it stands for, which carries over a
+     * recovery.
+     */
+    public record Snapshot(String version, long sequence, List<MockEmployee> employees) {}
+}
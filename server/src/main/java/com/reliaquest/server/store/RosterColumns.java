@@ -0,0 +1,225 @@
+package com.reliaquest.server.store;
+
+import com.reliaquest.server.model.ColumnStats;
+import com.reliaquest.server.model.MockEmployee;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/*
+ * The salary and age columns of the roster at one version, with the aggregates over them. Computed on the int arrays
+ * without boxing, on the common fork-join pool once a column is long enough for that to pay off. Sorted copies of the
+ * columns for percentiles are made on first use and kept for the life of the version.
+ */
+public final class RosterColumns {
+
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    private final String version;
+    private final MockEmployee[] rows;
+    private final int[] salaries;
+    private final int[] ages;
+    private final long[] idHighs;
+    private final long[] idLows;
+    private volatile int[] sortedSalaries;
+    private volatile int[] sortedAges;
+
+    RosterColumns(String version, MockEmployee[] rows, int[] salaries, int[] ages, long[] idHighs, long[] idLows) {
+        this.version = version;
+        this.rows = rows;
+        this.salaries = salaries;
+        this.ages = ages;
+        this.idHighs = idHighs;
+        this.idLows = idLows;
+    }
+
+    public enum Column {
+        SALARY,
+        AGE
+    }
+
+    public String version() {
+        return version;
+    }
+
+    public int size() {
+        return rows.length;
+    }
+
+    /*
+     * Count, min, max and mean of the column, and its value at each of the given percentiles (nearest rank, each in
+     * (0, 100]). Min, max, mean and percentiles are left out for an empty roster.
+     */
+    public ColumnStats stats(Column column, List<Double> percentiles) {
+        final var values = values(column);
+        if (values.length == 0) {
+            return new ColumnStats(0, null, null, null, null);
+        }
+        final var stream = Arrays.stream(values);
+        final var summary = (values.length >= PARALLEL_THRESHOLD ? stream.parallel() : stream).summaryStatistics();
+        LinkedHashMap<String, Integer> ranks = null;
+        if (!percentiles.isEmpty()) {
+            final var sorted = sorted(column);
+            ranks = new LinkedHashMap<>();
+            for (double percentile : percentiles) {
+                final var rank = (int) Math.ceil(percentile / 100 * sorted.length);
+                ranks.put(percentileKey(percentile), sorted[Math.max(rank, 1) - 1]);
+            }
+        }
+        return new ColumnStats(values.length, summary.getMin(), summary.getMax(), summary.getAverage(), ranks);
+    }
+
+    /*
+     * The highest earners, highest first, ties broken by id as the api ranks them.
+     */
+    public List<MockEmployee> topBySalary(int limit) {
+        final var count = Math.min(limit, rows.length);
+        if (count == 0) {
+            return List.of();
+        }
+        final TopRows top;
+        if (rows.length >= PARALLEL_THRESHOLD) {
+            final var chunks = Math.max(1, rows.length / PARALLEL_THRESHOLD);
+            top = IntStream.range(0, chunks)
+                    .parallel()
+                    .mapToObj(chunk -> new TopRows(count).offerAll((int) ((long) rows.length * chunk / chunks), (int)
+                            ((long) rows.length * (chunk + 1) / chunks)))
+                    .reduce(TopRows::merge)
+                    .orElseThrow();
+        } else {
+            top = new TopRows(count).offerAll(0, rows.length);
+        }
+        final var ranked = new ArrayList<MockEmployee>(count);
+        for (int row : top.drain()) {
+            ranked.add(rows[row]);
+        }
+        return ranked;
+    }
+
+    private int[] values(Column column) {
+        return column == Column.SALARY ? salaries : ages;
+    }
+
+    private int[] sorted(Column column) {
+        var sorted = column == Column.SALARY ? sortedSalaries : sortedAges;
+        if (sorted == null) {
+            // Racing readers may each sort once; the copies are equal, so whichever lands is fine
+            sorted = values(column).clone();
+            if (sorted.length >= PARALLEL_THRESHOLD) {
+                Arrays.parallelSort(sorted);
+            } else {
+                Arrays.sort(sorted);
+            }
+            if (column == Column.SALARY) {
+                sortedSalaries = sorted;
+            } else {
+                sortedAges = sorted;
+            }
+        }
+        return sorted;
+    }
+
+    private static String percentileKey(double percentile) {
+        return "p" + BigDecimal.valueOf(percentile).stripTrailingZeros().toPlainString();
+    }
+
+    /*
+     * Whether row a ranks above row b. Ids tie-break in the order of their strings, which for the fixed-width hex of a
+     * UUID is the unsigned order of its high half, then of its low half.
+     */
+    private boolean ranksAbove(int a, int b) {
+        if (salaries[a] != salaries[b]) {
+            return salaries[a] > salaries[b];
+        }
+        if (idHighs[a] != idHighs[b]) {
+            return Long.compareUnsigned(idHighs[a], idHighs[b]) < 0;
+        }
+        return Long.compareUnsigned(idLows[a], idLows[b]) < 0;
+    }
+
+    /*
+     * The best rows seen so far, in a binary heap of row numbers with the lowest ranked at the root.
+     */
+    private final class TopRows {
+
+        private final int[] heap;
+        private int size;
+
+        TopRows(int capacity) {
+            this.heap = new int[capacity];
+        }
+
+        TopRows offerAll(int from, int to) {
+            for (int row = from; row < to; row++) {
+                offer(row);
+            }
+            return this;
+        }
+
+        TopRows merge(TopRows other) {
+            for (int i = 0; i < other.size; i++) {
+                offer(other.heap[i]);
+            }
+            return this;
+        }
+
+        void offer(int row) {
+            if (size < heap.length) {
+                heap[size] = row;
+                siftUp(size++);
+            } else if (ranksAbove(row, heap[0])) {
+                heap[0] = row;
+                siftDown(0);
+            }
+        }
+
+        /*
+         * Empties the heap into an array of its rows, highest ranked first.
+         */
+        int[] drain() {
+            final var ranked = new int[size];
+            while (size > 0) {
+                ranked[size - 1] = heap[0];
+                heap[0] = heap[--size];
+                siftDown(0);
+            }
+            return ranked;
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                final var parent = (index - 1) >>> 1;
+                if (!ranksAbove(heap[parent], heap[index])) {
+                    return;
+                }
+                swap(index, parent);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index) {
+            while (true) {
+                final var left = 2 * index + 1;
+                if (left >= size) {
+                    return;
+                }
+                final var right = left + 1;
+                final var lower = right < size && ranksAbove(heap[left], heap[right]) ? right : left;
+                if (!ranksAbove(heap[index], heap[lower])) {
+                    return;
+                }
+                swap(index, lower);
+                index = lower;
+            }
+        }
+
+        private void swap(int a, int b) {
+            final var held = heap[a];
+            heap[a] = heap[b];
+            heap[b] = held;
+        }
+    }
+}
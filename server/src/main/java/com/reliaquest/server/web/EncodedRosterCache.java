@@ -0,0 +1,223 @@
+package com.reliaquest.server.web;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.reliaquest.server.model.Response;
+import com.reliaquest.server.store.MockEmployeeStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+/*
+ * The whole roster as the list endpoint sends it, encoded and gzipped once per roster version and wire format, so that
+ * serving it costs a copy of bytes whatever its size. A format is only encoded once a client asks for it. The first
+ * read after a write encodes the new version while concurrent readers of it wait for that one encoding; reads of the
+ * version held never lock.
+ */
+@Component
+public class EncodedRosterCache {
+
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    private final Map<Format, Slot> slots = new EnumMap<>(Format.class);
+
+    public EncodedRosterCache(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        slots.put(Format.JSON, new Slot(Format.JSON, objectMapper, meterRegistry));
+        slots.put(Format.SMILE, new Slot(Format.SMILE, smileMapper(objectMapper), meterRegistry));
+    }
+
+    /*
+     * A Smile mapper with the modules and settings of the given JSON one, so both formats carry the same properties.
+     * Smile would write UUIDs as 16 raw bytes, which a client mapping ids to strings reads back as base64; they stay
+     * strings, as in JSON.
+     */
+    public static ObjectMapper smileMapper(ObjectMapper objectMapper) {
+        final var smileMapper = objectMapper.copyWith(new SmileFactory());
+        smileMapper.configOverride(UUID.class).setFormat(JsonFormat.Value.forShape(JsonFormat.Shape.STRING));
+        return smileMapper;
+    }
+
+    public EncodedRoster get(MockEmployeeStore.Snapshot roster) {
+        return get(roster, Format.JSON);
+    }
+
+    public EncodedRoster get(MockEmployeeStore.Snapshot roster, Format format) {
+        return slots.get(format).get(roster);
+    }
+
+    /*
+     * The format an Accept header prefers: Smile only when it is ranked above JSON, by the quality of the most specific
+     * range covering each. Anything else, a missing or unparseable header included, gets JSON.
+     */
+    public static Format negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return Format.JSON;
+        }
+        final List<MediaType> ranges;
+        try {
+            ranges = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return Format.JSON;
+        }
+        return quality(ranges, APPLICATION_SMILE) > quality(ranges, MediaType.APPLICATION_JSON)
+                ? Format.SMILE
+                : Format.JSON;
+    }
+
+    private static double quality(List<MediaType> ranges, MediaType type) {
+        MediaType best = null;
+        for (MediaType range : ranges) {
+            if (range.includes(type) && (best == null || specificity(range) > specificity(best))) {
+                best = range;
+            }
+        }
+        return best == null ? 0 : best.getQualityValue();
+    }
+
+    private static int specificity(MediaType range) {
+        return (range.isWildcardType() ? 0 : 1) + (range.isWildcardSubtype() ? 0 : 1);
+    }
+
+    /*
+     * Whether an Accept-Encoding header admits gzip: listed, or covered by *, without q=0.
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            final var parameters = coding.split(";");
+            final var name = parameters[0].trim().toLowerCase(Locale.ROOT);
+            if (!name.equals("gzip") && !name.equals("x-gzip") && !name.equals("*")) {
+                continue;
+            }
+            var refused = false;
+            for (int i = 1; i < parameters.length; i++) {
+                final var parameter = parameters[i].trim().toLowerCase(Locale.ROOT);
+                if (parameter.startsWith("q=")) {
+                    try {
+                        refused = Double.parseDouble(parameter.substring(2)) <= 0;
+                    } catch (NumberFormatException e) {
+                        refused = true;
+                    }
+                }
+            }
+            if (!refused) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * The wire formats the whole roster is sent in: text JSON, or Jackson's binary Smile for clients that ask for it.
+     */
+    public enum Format {
+        JSON(MediaType.APPLICATION_JSON),
+        SMILE(APPLICATION_SMILE);
+
+        private final MediaType mediaType;
+
+        Format(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public MediaType mediaType() {
+            return mediaType;
+        }
+    }
+
+    /*
+     * The latest encoding of one format.
+     */
+    private static class Slot {
+
+        private final Format format;
+        private final ObjectMapper objectMapper;
+        private final Counter hits;
+        private final Counter encodings;
+        private final ReentrantLock encodeLock = new ReentrantLock();
+        private volatile EncodedRoster current;
+
+        Slot(Format format, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+            this.format = format;
+            this.objectMapper = objectMapper;
+            this.hits = readCounter(meterRegistry, format, "hit");
+            this.encodings = readCounter(meterRegistry, format, "encoded");
+        }
+
+        private static Counter readCounter(MeterRegistry meterRegistry, Format format, String result) {
+            return Counter.builder("mock.roster.encoded.reads")
+                    .description(
+                            "Whole roster reads, by wire format and whether its encoding was at hand or had to be made")
+                    .tag("format", format.name().toLowerCase(Locale.ROOT))
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+
+        EncodedRoster get(MockEmployeeStore.Snapshot roster) {
+            final var held = current;
+            if (held != null
+                    && held.sequence() == roster.sequence()
+                    && held.version().equals(roster.version())) {
+                hits.increment();
+                return held;
+            }
+            encodeLock.lock();
+            try {
+                final var latest = current;
+                if (latest != null
+                        && latest.sequence() == roster.sequence()
+                        && latest.version().equals(roster.version())) {
+                    hits.increment();
+                    return latest;
+                }
+                final var encoded = encode(roster);
+                encodings.increment();
+                // A reader that took its snapshot before a write may arrive late; its encoding is not worth keeping
+                if (latest == null || roster.sequence() >= latest.sequence()) {
+                    current = encoded;
+                }
+                return encoded;
+            } finally {
+                encodeLock.unlock();
+            }
+        }
+
+        private EncodedRoster encode(MockEmployeeStore.Snapshot roster) {
+            final byte[] body;
+            try {
+                body = objectMapper.writeValueAsBytes(Response.handledWith(roster.employees()));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Roster could not be encoded", e);
+            }
+            final var compressed = new ByteArrayOutputStream(Math.max(body.length / 4, 64));
+            try (var gzip = new GZIPOutputStream(compressed, 1 << 16)) {
+                gzip.write(body);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return new EncodedRoster(roster.version(), roster.sequence(), format, body, compressed.toByteArray());
+        }
+    }
+
+    /*
+     * The response body for one roster version in one format, plain and gzipped. The arrays are shared; never write to
+     * them.
+     */
+    public record EncodedRoster(String version, long sequence, Format format, byte[] body, byte[] gzip) {}
+}
@@ -0,0 +1,95 @@
+package com.reliaquest.server.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/*
+ * Answers requests over their client's limit with 429 and a Retry-After saying when to come back. Every answer
+ * carries the client's limit, what is left of it and, when it comes back with time, the seconds until it is whole
+ * again.
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    public static final String LIMIT = "X-RateLimit-Limit";
+    public static final String REMAINING = "X-RateLimit-Remaining";
+    public static final String RESET = "X-RateLimit-Reset";
+
+    private static final String HEADER_KEY = "header:";
+
+    private final RateLimiter limiter;
+    private final Function<HttpServletRequest, String> clientKey;
+    private final Counter allowedRequests;
+    private final Counter limitedRequests;
+
+    public RateLimitInterceptor(RateLimiter limiter, String clientKey, MeterRegistry meterRegistry) {
+        this.limiter = limiter;
+        this.clientKey = clientKey(clientKey);
+        this.allowedRequests = requestCounter(meterRegistry, "allowed");
+        this.limitedRequests = requestCounter(meterRegistry, "limited");
+        Gauge.builder("mock.rate-limit.clients", limiter, RateLimiter::clients)
+                .description("Clients the rate limiter is tracking")
+                .register(meterRegistry);
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("mock.rate-limit.requests")
+                .description("Requests seen by the rate limiter, by whether they were answered with 429")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /*
+     * global counts every request together, remote-address per client address, and header:<name> per value of that
+     * header, by address when it is missing.
+     */
+    static Function<HttpServletRequest, String> clientKey(String key) {
+        if ("global".equals(key)) {
+            return request -> "";
+        }
+        if ("remote-address".equals(key)) {
+            return HttpServletRequest::getRemoteAddr;
+        }
+        if (key.startsWith(HEADER_KEY) && key.length() > HEADER_KEY.length()) {
+            final var header = key.substring(HEADER_KEY.length());
+            return request -> {
+                final var value = request.getHeader(header);
+                return value == null ? request.getRemoteAddr() : HEADER_KEY + value;
+            };
+        }
+        throw new IllegalArgumentException(
+                "Rate limit key must be global, remote-address or header:<name>, not " + key);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        final var decision = limiter.tryAcquire(clientKey.apply(request));
+        response.setHeader(LIMIT, Integer.toString(decision.limit()));
+        response.setHeader(REMAINING, Integer.toString(decision.remaining()));
+        if (decision.resetNanos() >= 0) {
+            response.setHeader(RESET, Long.toString(seconds(decision.resetNanos())));
+        }
+        if (!decision.allowed()) {
+            limitedRequests.increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds(decision.retryAfterNanos())));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            return false;
+        }
+        allowedRequests.increment();
+        return true;
+    }
+
+    /*
+     * Rounded up, so a client waiting that long is sure to be let through.
+     */
+    private static long seconds(long nanos) {
+        return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,193 @@
+package com.reliaquest.server.web;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/*
+ * Request limits per client key. Each client's whole state is one long in an AtomicLong, advanced by a
+ * compare-and-set loop, so a check never locks and checks for different clients never write the same memory.
+ * Clients are created on first sight; once there are max-clients of them, the ones whose state has run back to a
+ * fresh client's are dropped, at most once a second.
+ */
+public abstract class RateLimiter {
+
+    private static final long SWEEP_INTERVAL_NANOS = Duration.ofSeconds(1).toNanos();
+
+    private final ConcurrentHashMap<String, AtomicLong> clients = new ConcurrentHashMap<>();
+    private final int maxClients;
+    private final AtomicLong nextSweep;
+    protected final LongSupplier clock;
+
+    protected RateLimiter(int maxClients, LongSupplier clock) {
+        if (maxClients < 1) {
+            throw new IllegalArgumentException("Max clients must be positive");
+        }
+        this.maxClients = maxClients;
+        this.clock = clock;
+        this.nextSweep = new AtomicLong(clock.getAsLong());
+    }
+
+    /*
+     * permitsPerSecond sustained, with bursts of up to burst requests.
+     */
+    public static RateLimiter tokenBucket(double permitsPerSecond, int burst, int maxClients, LongSupplier clock) {
+        return new TokenBucket(permitsPerSecond, burst, maxClients, clock);
+    }
+
+    /*
+     * limit requests, then none until backoff has passed since the last one let through.
+     */
+    public static RateLimiter lockout(int limit, Duration backoff, int maxClients, LongSupplier clock) {
+        return new Lockout(limit, backoff, maxClients, clock);
+    }
+
+    public Decision tryAcquire(String client) {
+        final var now = clock.getAsLong();
+        var state = clients.get(client);
+        if (state == null) {
+            if (clients.size() >= maxClients) {
+                sweep(now);
+            }
+            state = clients.computeIfAbsent(client, ignored -> new AtomicLong(initialState(now)));
+        }
+        return tryAcquire(state, now);
+    }
+
+    public int clients() {
+        return clients.size();
+    }
+
+    protected abstract long initialState(long now);
+
+    protected abstract Decision tryAcquire(AtomicLong state, long now);
+
+    /*
+     * Whether a client in this state is no different from a new one, so it can be dropped.
+     */
+    protected abstract boolean isIdle(long state, long now);
+
+    private void sweep(long now) {
+        final var due = nextSweep.get();
+        if (now - due < 0 || !nextSweep.compareAndSet(due, now + SWEEP_INTERVAL_NANOS)) {
+            return;
+        }
+        clients.values().removeIf(state -> isIdle(state.get(), now));
+    }
+
+    /*
+     * The outcome of one check. Times are nanoseconds from the check: reset is when the client will have its whole
+     * limit again, or -1 when that does not come with time alone; retryAfter is when a refused request would be let
+     * through, and 0 for an allowed one.
+     */
+    public record Decision(boolean allowed, int limit, int remaining, long resetNanos, long retryAfterNanos) {}
+
+    /*
+     * The generic cell rate algorithm: the state is the theoretical arrival time, when the bucket would be full
+     * again. A request is let through when moving it on by one emission interval keeps it within burst intervals of
+     * now.
+     */
+    private static final class TokenBucket extends RateLimiter {
+
+        private final int burst;
+        private final long interval;
+        private final long capacity;
+
+        TokenBucket(double permitsPerSecond, int burst, int maxClients, LongSupplier clock) {
+            super(maxClients, clock);
+            if (!(permitsPerSecond > 0) || burst < 1) {
+                throw new IllegalArgumentException("Permits per second and burst must be positive");
+            }
+            this.burst = burst;
+            this.interval = Math.max(1, Math.round(1e9 / permitsPerSecond));
+            this.capacity = interval * burst;
+        }
+
+        @Override
+        protected long initialState(long now) {
+            return now;
+        }
+
+        @Override
+        protected Decision tryAcquire(AtomicLong state, long now) {
+            while (true) {
+                final var arrival = state.get();
+                final var next = Math.max(arrival, now) + interval;
+                final var ahead = next - now;
+                if (ahead > capacity) {
+                    final var full = Math.max(arrival, now) - now;
+                    return new Decision(false, burst, 0, full, ahead - capacity);
+                }
+                if (state.compareAndSet(arrival, next)) {
+                    return new Decision(true, burst, (int) ((capacity - ahead) / interval), ahead, 0);
+                }
+            }
+        }
+
+        @Override
+        protected boolean isIdle(long state, long now) {
+            return state - now <= 0;
+        }
+    }
+
+    /*
+     * The state packs the count of requests let through into its low bits and, above them, the time of the last one
+     * in milliseconds from the limiter's creation. The count only restarts once the limit has been reached and the
+     * backoff has passed.
+     */
+    private static final class Lockout extends RateLimiter {
+
+        private static final int COUNT_BITS = 20;
+        private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+        private final int limit;
+        private final long backoffMillis;
+        private final long origin;
+
+        Lockout(int limit, Duration backoff, int maxClients, LongSupplier clock) {
+            super(maxClients, clock);
+            if (limit < 1 || limit > COUNT_MASK || backoff.isNegative()) {
+                throw new IllegalArgumentException(
+                        "Limit must be between 1 and " + COUNT_MASK + " and backoff must not be negative");
+            }
+            this.limit = limit;
+            this.backoffMillis = backoff.toMillis();
+            this.origin = clock.getAsLong();
+        }
+
+        @Override
+        protected long initialState(long now) {
+            return 0;
+        }
+
+        @Override
+        protected Decision tryAcquire(AtomicLong state, long now) {
+            final var nowMillis = (now - origin) / 1_000_000;
+            while (true) {
+                final var current = state.get();
+                var count = (int) (current & COUNT_MASK);
+                if (count >= limit) {
+                    final var lockedFor = (current >>> COUNT_BITS) + backoffMillis - nowMillis;
+                    if (lockedFor > 0) {
+                        final var nanos = lockedFor * 1_000_000;
+                        return new Decision(false, limit, 0, nanos, nanos);
+                    }
+                    count = 0;
+                }
+                count++;
+                if (state.compareAndSet(current, (nowMillis << COUNT_BITS) | count)) {
+                    final var reset = count == limit ? backoffMillis * 1_000_000 : -1;
+                    return new Decision(true, limit, limit - count, reset, 0);
+                }
+            }
+        }
+
+        @Override
+        protected boolean isIdle(long state, long now) {
+            final var count = state & COUNT_MASK;
+            return count == 0
+                    || (count >= limit && (state >>> COUNT_BITS) + backoffMillis <= (now - origin) / 1_000_000);
+        }
+    }
+}
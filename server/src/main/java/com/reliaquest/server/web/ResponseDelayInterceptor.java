@@ -0,0 +1,23 @@
+package com.reliaquest.server.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/*
+ * Holds every request for a fixed time to simulate a slow upstream.
+ */
+@RequiredArgsConstructor
+public class ResponseDelayInterceptor implements HandlerInterceptor {
+
+    private final Duration delay;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws InterruptedException {
+        Thread.sleep(delay);
+        return true;
+    }
+}
@@ -0,0 +1,42 @@
+package com.reliaquest.server.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.util.List;
+import java.util.Locale;
+import org.junit.jupiter.api.Test;
+
+class MockEmployeeSeederTest {
+
+    private static final int SIZE = 3 * MockEmployeeSeeder.CHUNK_SIZE + 17;
+
+    @Test
+    void testSameSeedGeneratesSameRosterOnAnyNumberOfThreads() {
+        // Arrange
+        MockEmployeeSeeder single = new MockEmployeeSeeder(Locale.ENGLISH, 42, 1);
+        MockEmployeeSeeder parallel = new MockEmployeeSeeder(Locale.ENGLISH, 42, 4);
+        // Act
+        List<MockEmployee> first = single.generate(SIZE);
+        List<MockEmployee> second = parallel.generate(SIZE);
+        // Assert
+        assertEquals(SIZE, first.size());
+        assertEquals(first, second);
+        assertEquals(SIZE, first.stream().map(MockEmployee::getId).distinct().count());
+        assertTrue(first.stream()
+                .allMatch(employee -> employee.getId().version() == 4
+                        && employee.getSalary() >= 30000
+                        && employee.getEmail().endsWith("@company.com")));
+    }
+
+    @Test
+    void testDifferentSeedsGenerateDifferentRosters() {
+        // Act
+        List<MockEmployee> first = new MockEmployeeSeeder(Locale.ENGLISH, 1, 2).generate(100);
+        List<MockEmployee> second = new MockEmployeeSeeder(Locale.ENGLISH, 2, 2).generate(100);
+        // Assert
+        assertNotEquals(first, second);
+    }
+}
@@ -0,0 +1,118 @@
+package com.reliaquest.server.controller;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.service.MockEmployeeService;
+import com.reliaquest.server.store.MockEmployeeStore;
+import com.reliaquest.server.web.EncodedRosterCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import net.datafaker.Faker;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+class MockEmployeeControllerTest {
+
+    private final MockEmployee employee = MockEmployee.builder()
+            .id(UUID.randomUUID())
+            .name("Jane Doe")
+            .salary(50_000)
+            .age(30)
+            .title("Tester")
+            .email("tester@company.com")
+            .build();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MockEmployeeService service = new MockEmployeeService(
+            new Faker(Locale.ROOT), new MockEmployeeStore(List.of(employee), 10), meterRegistry);
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(
+                    new MockEmployeeController(service, new EncodedRosterCache(new ObjectMapper(), meterRegistry)))
+            .setControllerAdvice(new MockEmployeeControllerAdvice())
+            .build();
+
+    @Test
+    void testRosterEtagDiffersPerContentCoding() throws Exception {
+        // Arrange
+        String identity = etagOf(get("/api/v1/employee"));
+        String gzip = etagOf(get("/api/v1/employee").header(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+        // Act & Assert
+        assertNotEquals(identity, gzip);
+        mockMvc.perform(get("/api/v1/employee")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, identity))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+        mockMvc.perform(get("/api/v1/employee")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, gzip))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/v1/employee").header(HttpHeaders.IF_NONE_MATCH, gzip))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/employee").header(HttpHeaders.IF_NONE_MATCH, identity))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void testRosterEtagDiffersPerFormat() throws Exception {
+        // Arrange
+        String json = etagOf(get("/api/v1/employee"));
+        String smile = etagOf(get("/api/v1/employee").accept(EncodedRosterCache.APPLICATION_SMILE));
+        // Act & Assert
+        assertNotEquals(json, smile);
+        mockMvc.perform(get("/api/v1/employee")
+                        .accept(EncodedRosterCache.APPLICATION_SMILE)
+                        .header(HttpHeaders.IF_NONE_MATCH, json))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(EncodedRosterCache.APPLICATION_SMILE));
+        mockMvc.perform(get("/api/v1/employee")
+                        .accept(EncodedRosterCache.APPLICATION_SMILE)
+                        .header(HttpHeaders.IF_NONE_MATCH, smile))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/v1/employee").header(HttpHeaders.IF_NONE_MATCH, smile))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testDeleteByIdAnswersTrueOnce() throws Exception {
+        // Act
+        mockMvc.perform(delete("/api/v1/employee/{id}", employee.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data").value(true));
+        // Assert
+        assertTrue(service.findById(employee.getId()).isEmpty());
+        mockMvc.perform(delete("/api/v1/employee/{id}", employee.getId()))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.data").value(false));
+    }
+
+    @Test
+    void testDeleteByUnknownIdIsNotFound() throws Exception {
+        // Act
+        mockMvc.perform(delete("/api/v1/employee/{id}", UUID.randomUUID()))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.data").value(false));
+        // Assert
+        assertTrue(service.findById(employee.getId()).isPresent());
+    }
+
+    private String etagOf(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+    }
+}
@@ -0,0 +1,65 @@
+package com.reliaquest.server.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeChange;
+import com.reliaquest.server.store.MockEmployeeStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import net.datafaker.Faker;
+import org.junit.jupiter.api.Test;
+
+class MockEmployeeServiceTest {
+
+    private final MockEmployee kept = employee("Kept");
+    private final MockEmployee removed = employee("Removed");
+    private final MockEmployeeService service = new MockEmployeeService(
+            new Faker(Locale.ROOT), new MockEmployeeStore(List.of(kept, removed), 10), new SimpleMeterRegistry());
+
+    @Test
+    void testDeleteByIdRemovesOnlyThatEmployee() {
+        // Arrange
+        String before = service.getRoster().version();
+        // Act
+        boolean deleted = service.deleteById(removed.getId());
+        // Assert
+        assertTrue(deleted);
+        assertTrue(service.findById(removed.getId()).isEmpty());
+        assertEquals(List.of(kept), service.getMockEmployees());
+        List<MockEmployeeChange> changes = service.getChangesSince(before).changes();
+        assertEquals(1, changes.size());
+        assertEquals(MockEmployeeChange.Type.DELETED, changes.get(0).type());
+        assertEquals(removed.getId(), changes.get(0).id());
+    }
+
+    @Test
+    void testDeleteByUnknownIdChangesNothing() {
+        // Arrange
+        service.deleteById(removed.getId());
+        String before = service.getRoster().version();
+        // Act
+        boolean unknown = service.deleteById(UUID.randomUUID());
+        boolean again = service.deleteById(removed.getId());
+        // Assert
+        assertFalse(unknown);
+        assertFalse(again);
+        assertEquals(List.of(kept), service.getMockEmployees());
+        assertEquals(before, service.getRoster().version());
+    }
+
+    private static MockEmployee employee(String name) {
+        return MockEmployee.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .salary(50_000)
+                .age(30)
+                .title("Tester")
+                .email("tester@company.com")
+                .build();
+    }
+}
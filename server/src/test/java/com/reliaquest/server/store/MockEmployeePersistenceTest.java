@@ -0,0 +1,165 @@
+package com.reliaquest.server.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MockEmployeePersistenceTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRosterSurvivesRestart() throws Exception {
+        // Arrange
+        MockEmployeeStore store;
+        MockEmployeeStore.Snapshot before;
+        try (var persistence = persistence()) {
+            store = persistence.open(() -> seed(5), 10);
+            store.add(employee("Added"));
+            store.removeFirstByName("Seed 0");
+            before = store.snapshot();
+        }
+        // Act
+        try (var persistence = persistence()) {
+            MockEmployeeStore recovered = persistence.open(() -> seed(50), 10);
+            // Assert
+            assertEquals(before.employees(), recovered.snapshot().employees());
+            assertEquals(2, recovered.snapshot().sequence());
+            assertEquals("Added", recovered.findByName("added").get(0).getName());
+        }
+    }
+
+    @Test
+    void testLogIsReplayedAfterCrashAndTornTailIsCut() throws Exception {
+        // Arrange
+        var crashed = persistence();
+        MockEmployeeStore store = crashed.open(() -> seed(10), 10);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int w = 0; w < 4; w++) {
+            int writer = w;
+            writers.add(executor.submit(
+                    () -> IntStream.range(0, 100).forEach(i -> store.add(employee("Writer " + writer + " " + i)))));
+        }
+        for (Future<?> future : writers) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        store.removeById(store.snapshot().employees().get(0).getId());
+        MockEmployeeStore.Snapshot before = store.snapshot();
+        // A record cut short by the crash
+        Files.write(segments().get(segments().size() - 1), new byte[] {0, 0, 0, 40, 1, 2}, StandardOpenOption.APPEND);
+        // Act
+        try (var persistence = persistence()) {
+            MockEmployeeStore recovered = persistence.open(() -> seed(50), 10);
+            // Assert
+            assertEquals(before.employees(), recovered.snapshot().employees());
+            assertEquals(401, recovered.snapshot().sequence());
+            assertEquals(1, segments().size());
+        }
+    }
+
+    @Test
+    void testCompactionDeletesCoveredSegments() throws Exception {
+        // Arrange
+        try (var persistence = persistence()) {
+            MockEmployeeStore store = persistence.open(() -> seed(3), 10);
+            store.add(employee("First"));
+            persistence.compact();
+            store.add(employee("Second"));
+            // Act
+            persistence.compact();
+            // Assert
+            assertEquals(List.of(directory.resolve(MockEmployeeLog.segmentName(3))), segments());
+            assertEquals(0, Files.size(segments().get(0)));
+        }
+    }
+
+    @Test
+    void testWriteRefusedByClosedLogIsNotApplied() throws Exception {
+        // Arrange
+        MockEmployeeStore store;
+        try (var persistence = persistence()) {
+            store = persistence.open(() -> seed(3), 10);
+        }
+        MockEmployeeStore.Snapshot before = store.snapshot();
+        MockEmployee seeded = before.employees().get(0);
+        // Act / Assert
+        assertThrows(IllegalStateException.class, () -> store.add(employee("Refused")));
+        assertThrows(IllegalStateException.class, () -> store.removeById(seeded.getId()));
+        assertSame(before, store.snapshot());
+        assertTrue(store.findByName("Refused").isEmpty());
+        assertTrue(store.findById(seeded.getId()).isPresent());
+        assertEquals(3, store.columns().size());
+        assertTrue(store.changesSince(before.version()).changes().isEmpty());
+    }
+
+    @Test
+    void testChangeLogWithoutSnapshotIsRejected() throws Exception {
+        // Arrange
+        try (var persistence = persistence()) {
+            persistence.open(() -> seed(3), 10).add(employee("Added"));
+        }
+        Files.delete(directory.resolve(MockEmployeePersistence.SNAPSHOT));
+        Files.write(directory.resolve(MockEmployeeLog.segmentName(1)), Files.readAllBytes(firstLoggedChange()));
+        // Act / Assert
+        try (var persistence = persistence()) {
+            assertThrows(IllegalStateException.class, () -> persistence.open(() -> seed(3), 10));
+        }
+    }
+
+    /*
+     * Logs one more change in a scratch directory and returns its segment.
+     */
+    private Path firstLoggedChange() throws Exception {
+        Path scratch = Files.createDirectory(directory.resolve("scratch"));
+        var persistence = new MockEmployeePersistence(scratch, Duration.ZERO, Duration.ZERO);
+        persistence.open(() -> seed(1), 10).add(employee("Logged"));
+        return scratch.resolve(MockEmployeeLog.segmentName(1));
+    }
+
+    private MockEmployeePersistence persistence() {
+        return new MockEmployeePersistence(directory, Duration.ofMillis(1), Duration.ZERO);
+    }
+
+    private List<Path> segments() throws Exception {
+        try (var files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".log"))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static List<MockEmployee> seed(int size) {
+        return IntStream.range(0, size).mapToObj(i -> employee("Seed " + i)).toList();
+    }
+
+    private static MockEmployee employee(String name) {
+        return MockEmployee.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .salary(50_000)
+                .age(30)
+                .title(null)
+                .email("tester@company.com")
+                .build();
+    }
+}
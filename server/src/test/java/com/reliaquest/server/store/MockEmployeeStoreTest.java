@@ -0,0 +1,234 @@
+package com.reliaquest.server.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeChange;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class MockEmployeeStoreTest {
+
+    private static final int SEED = 1_000;
+    private static final int WRITERS = 4;
+    private static final int READERS = 4;
+    private static final int WRITES_PER_WRITER = 5_000;
+
+    @Test
+    void testIndexesAndSnapshotsFollowWrites() {
+        // Arrange
+        MockEmployeeStore store = new MockEmployeeStore(seed(3), 10);
+        MockEmployeeStore.Snapshot before = store.snapshot();
+        MockEmployee added = employee("Jane Doe");
+        // Act
+        boolean addedOnce = store.add(added);
+        boolean addedTwice = store.add(added);
+        MockEmployeeStore.Snapshot after = store.snapshot();
+        // Assert
+        assertTrue(addedOnce);
+        assertFalse(addedTwice);
+        assertSame(after, store.snapshot());
+        assertEquals(3, before.employees().size());
+        assertEquals(4, after.employees().size());
+        assertSame(added, after.employees().get(3));
+        assertSame(added, store.findById(added.getId()).orElseThrow());
+        assertEquals(List.of(added), store.findByName("JANE doe"));
+        assertEquals(
+                List.of(added), store.removeFirstByName("jane DOE").stream().toList());
+        assertTrue(store.findByName("Jane Doe").isEmpty());
+        assertTrue(store.findById(added.getId()).isEmpty());
+        assertEquals(
+                List.of(MockEmployeeChange.Type.CREATED, MockEmployeeChange.Type.DELETED),
+                store.changesSince(before.version()).changes().stream()
+                        .map(MockEmployeeChange::type)
+                        .toList());
+    }
+
+    @Test
+    void testSeedListingAnIdTwiceIsIndexedOnce() {
+        // Arrange
+        MockEmployee first = employee("First");
+        MockEmployee again = first.toBuilder().name("Again").salary(90_000).build();
+        // Act
+        MockEmployeeStore store = new MockEmployeeStore(List.of(first, employee("Other"), again), 10);
+        // Assert
+        assertEquals(2, store.size());
+        assertEquals(2, store.snapshot().employees().size());
+        assertSame(again, store.findById(first.getId()).orElseThrow());
+        assertTrue(store.findByName("First").isEmpty());
+        assertEquals(List.of(again), store.findByName("Again"));
+        RosterColumns columns = store.columns();
+        assertEquals(2, columns.size());
+        assertEquals(2, columns.stats(RosterColumns.Column.SALARY, List.of()).count());
+        assertEquals(
+                70_000.0, columns.stats(RosterColumns.Column.SALARY, List.of()).mean());
+        assertEquals(
+                List.of(first.getId()),
+                columns.topBySalary(1).stream().map(MockEmployee::getId).toList());
+        assertTrue(store.removeById(first.getId()).isPresent());
+        assertEquals(1, store.columns().size());
+    }
+
+    @Test
+    void testChangeFeedAsksForResyncOnceTrimmed() {
+        // Arrange
+        MockEmployeeStore store = new MockEmployeeStore(seed(3), 2);
+        String start = store.snapshot().version();
+        // Act
+        store.add(employee("One"));
+        String afterOne = store.snapshot().version();
+        store.add(employee("Two"));
+        store.add(employee("Three"));
+        // Assert
+        assertTrue(store.changesSince(start).resync());
+        assertEquals(2, store.changesSince(afterOne).changes().size());
+        assertTrue(store.changesSince("another-run-0").resync());
+        assertTrue(store.changesSince(store.snapshot().version()).changes().isEmpty());
+    }
+
+    @Test
+    void testConcurrentWritesAndReadsStayConsistent() throws Exception {
+        // Arrange
+        MockEmployeeStore store = new MockEmployeeStore(seed(SEED), WRITERS * WRITES_PER_WRITER);
+        MockEmployeeStore.Snapshot start = store.snapshot();
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS + READERS);
+        CountDownLatch go = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicInteger adds = new AtomicInteger();
+        AtomicInteger removes = new AtomicInteger();
+        ConcurrentLinkedQueue<String> violations = new ConcurrentLinkedQueue<>();
+        List<Future<?>> writers = new ArrayList<>();
+        List<Future<?>> readers = new ArrayList<>();
+        // Act
+        for (int w = 0; w < WRITERS; w++) {
+            writers.add(executor.submit(() -> {
+                go.await();
+                List<UUID> own = new ArrayList<>();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < WRITES_PER_WRITER; i++) {
+                    int choice = random.nextInt(10);
+                    if (choice < 5 || own.isEmpty()) {
+                        // Shared names make the writers contend on the same name index entries
+                        MockEmployee employee = employee("Shared " + random.nextInt(20));
+                        if (store.add(employee)) {
+                            adds.incrementAndGet();
+                            own.add(employee.getId());
+                        }
+                    } else if (choice < 8) {
+                        UUID id = own.remove(random.nextInt(own.size()));
+                        if (store.removeById(id).isPresent()) {
+                            removes.incrementAndGet();
+                        }
+                    } else if (store.removeFirstByName("SHARED " + random.nextInt(20))
+                            .isPresent()) {
+                        removes.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        for (int r = 0; r < READERS; r++) {
+            readers.add(executor.submit(() -> {
+                go.await();
+                long lastVersion = -1;
+                while (writing.get()) {
+                    MockEmployeeStore.Snapshot snapshot = store.snapshot();
+                    long version = counter(snapshot.version());
+                    if (version < lastVersion) {
+                        violations.add("version went back from " + lastVersion + " to " + version);
+                    }
+                    lastVersion = version;
+                    long distinct = snapshot.employees().stream()
+                            .map(MockEmployee::getId)
+                            .distinct()
+                            .count();
+                    if (distinct != snapshot.employees().size()) {
+                        violations.add("snapshot " + version + " lists an employee twice");
+                    }
+                    MockEmployee any = snapshot.employees()
+                            .get(ThreadLocalRandom.current()
+                                    .nextInt(snapshot.employees().size()));
+                    store.findById(any.getId());
+                    store.findByName(any.getName());
+                }
+                return null;
+            }));
+        }
+        go.countDown();
+        for (Future<?> writer : writers) {
+            writer.get(60, TimeUnit.SECONDS);
+        }
+        writing.set(false);
+        for (Future<?> reader : readers) {
+            reader.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        // Assert
+        assertTrue(violations.isEmpty(), () -> String.join("\n", violations));
+        MockEmployeeStore.Snapshot end = store.snapshot();
+        int expected = SEED + adds.get() - removes.get();
+        assertEquals(expected, store.size());
+        assertEquals(expected, end.employees().size());
+        assertEquals(adds.get() + removes.get(), counter(end.version()));
+
+        Map<String, Integer> names = new HashMap<>();
+        for (MockEmployee employee : end.employees()) {
+            assertSame(employee, store.findById(employee.getId()).orElseThrow());
+            assertTrue(store.findByName(employee.getName()).contains(employee));
+            names.merge(employee.getName().toLowerCase(), 1, Integer::sum);
+        }
+        names.forEach(
+                (name, count) -> assertEquals(count, store.findByName(name).size()));
+
+        // Replaying the change log onto the seed gives the same roster
+        Set<UUID> replayed = new HashSet<>();
+        start.employees().forEach(employee -> replayed.add(employee.getId()));
+        for (MockEmployeeChange change : store.changesSince(start.version()).changes()) {
+            if (change.type() == MockEmployeeChange.Type.CREATED) {
+                replayed.add(change.id());
+            } else {
+                replayed.remove(change.id());
+            }
+        }
+        assertEquals(end.employees().stream().map(MockEmployee::getId).collect(Collectors.toSet()), replayed);
+    }
+
+    private static long counter(String version) {
+        return Long.parseLong(version.substring(version.lastIndexOf('-') + 1));
+    }
+
+    private static List<MockEmployee> seed(int size) {
+        return IntStream.range(0, size).mapToObj(i -> employee("Seed " + i)).toList();
+    }
+
+    private static MockEmployee employee(String name) {
+        return MockEmployee.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .salary(50_000)
+                .age(30)
+                .title("Tester")
+                .email("tester@company.com")
+                .build();
+    }
+}
@@ -0,0 +1,134 @@
+package com.reliaquest.server.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.reliaquest.server.model.ColumnStats;
+import com.reliaquest.server.model.MockEmployee;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class RosterColumnsTest {
+
+    private static final Comparator<MockEmployee> BY_SALARY_DESCENDING = Comparator.comparingInt(
+                    MockEmployee::getSalary)
+            .reversed()
+            .thenComparing(employee -> employee.getId().toString());
+
+    @Test
+    void testAggregatesFollowWrites() {
+        // Arrange
+        MockEmployeeStore store = new MockEmployeeStore(roster(new Random(1), 1_000), 0);
+        assertAggregatesMatch(store);
+        RosterColumns before = store.columns();
+        // Act
+        Random random = new Random(2);
+        for (int i = 0; i < 500; i++) {
+            List<MockEmployee> employees = store.snapshot().employees();
+            if (random.nextBoolean()) {
+                store.removeById(employees.get(random.nextInt(employees.size())).getId());
+            } else {
+                store.add(employee(random));
+            }
+        }
+        // Assert
+        assertEquals(1_000, before.size());
+        assertSame(store.columns(), store.columns());
+        assertAggregatesMatch(store);
+    }
+
+    @Test
+    void testLargeRosterIsAggregatedInParallel() {
+        // Arrange
+        MockEmployeeStore store = new MockEmployeeStore(roster(new Random(3), 3 * RosterColumns.PARALLEL_THRESHOLD), 0);
+        // Act / Assert
+        assertAggregatesMatch(store);
+    }
+
+    @Test
+    void testSalaryTiesAreBrokenByIdAsTheirStringsSort() {
+        // Arrange
+        List<MockEmployee> tied = List.of(
+                tied(new UUID(-1L, 1L)),
+                tied(new UUID(1L, -1L)),
+                tied(new UUID(1L, 1L)),
+                tied(new UUID(Long.MIN_VALUE, 0L)));
+        MockEmployeeStore store = new MockEmployeeStore(tied, 0);
+        // Act
+        List<MockEmployee> top = store.columns().topBySalary(tied.size());
+        // Assert
+        assertEquals(tied.stream().sorted(BY_SALARY_DESCENDING).toList(), top);
+    }
+
+    @Test
+    void testEmptyRosterHasOnlyACount() {
+        // Arrange
+        MockEmployeeStore store = new MockEmployeeStore(List.of(), 0);
+        // Act
+        ColumnStats stats = store.columns().stats(RosterColumns.Column.SALARY, List.of(50.0));
+        // Assert
+        assertEquals(0, stats.count());
+        assertNull(stats.max());
+        assertNull(stats.percentiles());
+        assertEquals(List.of(), store.columns().topBySalary(10));
+    }
+
+    private static void assertAggregatesMatch(MockEmployeeStore store) {
+        List<MockEmployee> employees = store.snapshot().employees();
+        RosterColumns columns = store.columns();
+        List<Integer> salaries =
+                employees.stream().map(MockEmployee::getSalary).sorted().toList();
+
+        ColumnStats stats = columns.stats(RosterColumns.Column.SALARY, List.of(50.0, 99.9, 100.0));
+        assertEquals(employees.size(), stats.count());
+        assertEquals(salaries.get(0), stats.min());
+        assertEquals(salaries.get(salaries.size() - 1), stats.max());
+        assertEquals(salaries.stream().mapToLong(Integer::longValue).average().orElseThrow(), stats.mean(), 1e-6);
+        assertEquals(
+                Map.of(
+                        "p50", salaries.get((int) Math.ceil(0.5 * salaries.size()) - 1),
+                        "p99.9", salaries.get((int) Math.ceil(0.999 * salaries.size()) - 1),
+                        "p100", salaries.get(salaries.size() - 1)),
+                stats.percentiles());
+        assertEquals(
+                employees.stream().mapToInt(MockEmployee::getAge).max().orElseThrow(),
+                columns.stats(RosterColumns.Column.AGE, List.of()).max());
+
+        assertEquals(employees.stream().sorted(BY_SALARY_DESCENDING).limit(25).toList(), columns.topBySalary(25));
+    }
+
+    private static List<MockEmployee> roster(Random random, int size) {
+        return IntStream.range(0, size).mapToObj(i -> employee(random)).toList();
+    }
+
+    private static MockEmployee tied(UUID id) {
+        return MockEmployee.builder()
+                .id(id)
+                .name("Tied " + id)
+                .salary(50_000)
+                .age(30)
+                .title("Tester")
+                .email("tester@company.com")
+                .build();
+    }
+
+    /*
+     * Salaries from a narrow range, so that ties have to be broken.
+     */
+    private static MockEmployee employee(Random random) {
+        return MockEmployee.builder()
+                .id(new UUID(random.nextLong(), random.nextLong()))
+                .name("Employee " + random.nextInt())
+                .salary(30_000 + random.nextInt(500) * 100)
+                .age(16 + random.nextInt(55))
+                .title("Tester")
+                .email("tester@company.com")
+                .build();
+    }
+}
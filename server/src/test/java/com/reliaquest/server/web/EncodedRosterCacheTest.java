@@ -0,0 +1,132 @@
+package com.reliaquest.server.web;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.Response;
+import com.reliaquest.server.store.MockEmployeeStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+
+class EncodedRosterCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final EncodedRosterCache cache = new EncodedRosterCache(objectMapper, meterRegistry);
+
+    @Test
+    void testEncodesOncePerVersion() throws Exception {
+        // Arrange
+        MockEmployeeStore store = new MockEmployeeStore(List.of(employee("One"), employee("Two")), 0);
+        // Act
+        EncodedRosterCache.EncodedRoster first = cache.get(store.snapshot());
+        EncodedRosterCache.EncodedRoster again = cache.get(store.snapshot());
+        store.add(employee("Three"));
+        EncodedRosterCache.EncodedRoster changed = cache.get(store.snapshot());
+        // Assert
+        assertSame(first, again);
+        assertNotSame(first, changed);
+        assertArrayEquals(
+                objectMapper.writeValueAsBytes(
+                        Response.handledWith(store.snapshot().employees())),
+                changed.body());
+        try (var gzip = new GZIPInputStream(new ByteArrayInputStream(changed.gzip()))) {
+            assertArrayEquals(changed.body(), gzip.readAllBytes());
+        }
+        assertEquals(
+                2,
+                meterRegistry
+                        .get("mock.roster.encoded.reads")
+                        .tag("format", "json")
+                        .tag("result", "encoded")
+                        .counter()
+                        .count());
+    }
+
+    @Test
+    void testLateReaderDoesNotReplaceNewerEncoding() {
+        // Arrange
+        MockEmployeeStore store = new MockEmployeeStore(List.of(employee("One")), 0);
+        MockEmployeeStore.Snapshot old = store.snapshot();
+        store.add(employee("Two"));
+        EncodedRosterCache.EncodedRoster latest = cache.get(store.snapshot());
+        // Act
+        EncodedRosterCache.EncodedRoster late = cache.get(old);
+        // Assert
+        assertEquals(old.version(), late.version());
+        assertSame(latest, cache.get(store.snapshot()));
+    }
+
+    @Test
+    void testEncodesSmileOnlyWhenAskedFor() throws Exception {
+        // Arrange
+        MockEmployeeStore store = new MockEmployeeStore(List.of(employee("One"), employee("Two")), 0);
+        ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+        // Act
+        EncodedRosterCache.EncodedRoster json = cache.get(store.snapshot());
+        EncodedRosterCache.EncodedRoster smile = cache.get(store.snapshot(), EncodedRosterCache.Format.SMILE);
+        // Assert
+        assertEquals(EncodedRosterCache.Format.SMILE, smile.format());
+        assertEquals(objectMapper.readTree(json.body()), smileMapper.readTree(smile.body()));
+        assertTrue(smile.body().length < json.body().length);
+        assertSame(json, cache.get(store.snapshot()));
+        assertEquals(
+                1,
+                meterRegistry
+                        .get("mock.roster.encoded.reads")
+                        .tag("format", "smile")
+                        .tag("result", "encoded")
+                        .counter()
+                        .count());
+    }
+
+    @Test
+    void testNegotiatesSmileOnlyWhenPreferred() {
+        assertEquals(
+                EncodedRosterCache.Format.SMILE,
+                EncodedRosterCache.negotiate("application/x-jackson-smile, application/json;q=0.9"));
+        assertEquals(EncodedRosterCache.Format.SMILE, EncodedRosterCache.negotiate("application/x-jackson-smile"));
+        assertEquals(EncodedRosterCache.Format.JSON, EncodedRosterCache.negotiate(null));
+        assertEquals(EncodedRosterCache.Format.JSON, EncodedRosterCache.negotiate("*/*"));
+        assertEquals(
+                EncodedRosterCache.Format.JSON,
+                EncodedRosterCache.negotiate("application/x-jackson-smile, application/json"));
+        assertEquals(
+                EncodedRosterCache.Format.JSON,
+                EncodedRosterCache.negotiate("application/x-jackson-smile;q=0.5, application/*"));
+        assertEquals(EncodedRosterCache.Format.JSON, EncodedRosterCache.negotiate("not a media type"));
+    }
+
+    @Test
+    void testAcceptsGzip() {
+        assertTrue(EncodedRosterCache.acceptsGzip("gzip, deflate, br"));
+        assertTrue(EncodedRosterCache.acceptsGzip("br;q=1.0, GZIP;q=0.5"));
+        assertTrue(EncodedRosterCache.acceptsGzip("*"));
+        assertFalse(EncodedRosterCache.acceptsGzip(null));
+        assertFalse(EncodedRosterCache.acceptsGzip("identity"));
+        assertFalse(EncodedRosterCache.acceptsGzip("gzip;q=0, deflate"));
+        assertFalse(EncodedRosterCache.acceptsGzip("gzip; q=0.000"));
+    }
+
+    private static MockEmployee employee(String name) {
+        return MockEmployee.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .salary(50_000)
+                .age(30)
+                .title("Tester")
+                .email("tester@company.com")
+                .build();
+    }
+}
@@ -0,0 +1,150 @@
+package com.reliaquest.server.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class RateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+
+    @Test
+    void testTokenBucketAllowsBurstThenRate() {
+        // Arrange
+        RateLimiter limiter = RateLimiter.tokenBucket(10, 3, 100, now::get);
+        // Act
+        List<RateLimiter.Decision> burst = List.of(
+                limiter.tryAcquire("a"), limiter.tryAcquire("a"), limiter.tryAcquire("a"), limiter.tryAcquire("a"));
+        advance(Duration.ofMillis(100));
+        RateLimiter.Decision refilled = limiter.tryAcquire("a");
+        RateLimiter.Decision otherClient = limiter.tryAcquire("b");
+        // Assert
+        assertEquals(
+                List.of(2, 1, 0),
+                burst.stream().limit(3).map(RateLimiter.Decision::remaining).toList());
+        assertFalse(burst.get(3).allowed());
+        assertEquals(Duration.ofMillis(100).toNanos(), burst.get(3).retryAfterNanos());
+        assertEquals(Duration.ofMillis(300).toNanos(), burst.get(3).resetNanos());
+        assertTrue(refilled.allowed());
+        assertEquals(0, refilled.remaining());
+        assertTrue(otherClient.allowed());
+        assertEquals(2, limiter.clients());
+    }
+
+    @Test
+    void testLockoutRefusesUntilBackoffAfterLastAllowed() {
+        // Arrange
+        RateLimiter limiter = RateLimiter.lockout(3, Duration.ofSeconds(30), 100, now::get);
+        limiter.tryAcquire("");
+        advance(Duration.ofMinutes(5));
+        limiter.tryAcquire("");
+        RateLimiter.Decision last = limiter.tryAcquire("");
+        // Act
+        advance(Duration.ofSeconds(10));
+        RateLimiter.Decision locked = limiter.tryAcquire("");
+        advance(Duration.ofSeconds(20));
+        RateLimiter.Decision reopened = limiter.tryAcquire("");
+        // Assert
+        assertEquals(0, last.remaining());
+        assertEquals(Duration.ofSeconds(30).toNanos(), last.resetNanos());
+        assertFalse(locked.allowed());
+        assertEquals(Duration.ofSeconds(20).toNanos(), locked.retryAfterNanos());
+        assertTrue(reopened.allowed());
+        assertEquals(2, reopened.remaining());
+        assertEquals(-1, reopened.resetNanos());
+    }
+
+    @Test
+    void testConcurrentChecksNeverAdmitMoreThanTheLimit() throws Exception {
+        // Arrange
+        RateLimiter bucket = RateLimiter.tokenBucket(1, 1_000, 100, now::get);
+        RateLimiter lockout = RateLimiter.lockout(1_000, Duration.ofHours(1), 100, now::get);
+        AtomicInteger bucketAllowed = new AtomicInteger();
+        AtomicInteger lockoutAllowed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<?>> checks = new ArrayList<>();
+        // Act
+        for (int t = 0; t < 8; t++) {
+            checks.add(executor.submit(() -> {
+                go.await();
+                for (int i = 0; i < 10_000; i++) {
+                    if (bucket.tryAcquire("client").allowed()) {
+                        bucketAllowed.incrementAndGet();
+                    }
+                    if (lockout.tryAcquire("client").allowed()) {
+                        lockoutAllowed.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        go.countDown();
+        for (Future<?> check : checks) {
+            check.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        // Assert
+        assertEquals(1_000, bucketAllowed.get());
+        assertEquals(1_000, lockoutAllowed.get());
+    }
+
+    @Test
+    void testIdleClientsAreDroppedOnceFull() {
+        // Arrange
+        RateLimiter limiter = RateLimiter.tokenBucket(10, 1, 2, now::get);
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("b");
+        // Act
+        advance(Duration.ofSeconds(2));
+        limiter.tryAcquire("c");
+        // Assert
+        assertEquals(1, limiter.clients());
+    }
+
+    @Test
+    void testInterceptorSendsRetryAfterAndLimitHeaders() {
+        // Arrange
+        RateLimitInterceptor interceptor = new RateLimitInterceptor(
+                RateLimiter.tokenBucket(0.5, 1, 100, now::get), "header:X-Client", new SimpleMeterRegistry());
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-Client", "one");
+        MockHttpServletResponse allowed = new MockHttpServletResponse();
+        MockHttpServletResponse limited = new MockHttpServletResponse();
+        MockHttpServletResponse otherClient = new MockHttpServletResponse();
+        // Act
+        boolean first = interceptor.preHandle(request, allowed, null);
+        boolean second = interceptor.preHandle(request, limited, null);
+        boolean third = interceptor.preHandle(new MockHttpServletRequest(), otherClient, null);
+        // Assert
+        assertTrue(first);
+        assertNull(allowed.getHeader("Retry-After"));
+        assertEquals("0", allowed.getHeader(RateLimitInterceptor.REMAINING));
+        assertEquals("2", allowed.getHeader(RateLimitInterceptor.RESET));
+        assertFalse(second);
+        assertEquals(429, limited.getStatus());
+        assertEquals("2", limited.getHeader("Retry-After"));
+        assertEquals("1", limited.getHeader(RateLimitInterceptor.LIMIT));
+        assertTrue(third);
+    }
+
+    private void advance(Duration duration) {
+        now.addAndGet(duration.toNanos());
+    }
+}